@@ -0,0 +1,95 @@
+package student;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures filters of different selectivities and condition counts, over a stream of
+ * BoardGame objects and over the catalog's columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilterBenchmark {
+    /**
+     * Number of games in the collection.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * Filter to apply, from nearly everything to almost nothing, with one to four conditions.
+     */
+    @Param({"rating>0", "rating>=7", "rating>=8.5", "minplayers<=2,maxplayers>=4",
+        "rating>=7,avgweight<3,minplayers<=2,yearpublished>2010", "name~=catan"})
+    private String filter;
+
+    /**
+     * The collection as columns.
+     */
+    private GameCatalog catalog;
+    /**
+     * The collection as BoardGame objects.
+     */
+    private List<BoardGame> games;
+
+    /**
+     * Loads the generated collection.
+     *
+     * @throws IOException if the collection cannot be generated or read
+     */
+    @Setup
+    public void setup() throws IOException {
+        catalog = GamesLoader.loadCatalog(SyntheticCollection.csv(rows));
+        games = IntStream.range(0, catalog.size()).mapToObj(catalog::game)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Filters a stream of BoardGame objects.
+     *
+     * @return number of matching games
+     */
+    @Benchmark
+    public long applyFilter() {
+        return Filters.applyFilter(filter, games.stream()).count();
+    }
+
+    /**
+     * Empties the catalog's condition bitmap cache before every call, so filterRows measures
+     * evaluating the filter instead of looking up the bitmaps of the previous call.
+     */
+    @Setup(Level.Invocation)
+    public void clearBitmaps() {
+        catalog.bitmaps().clear();
+    }
+
+    /**
+     * Filters the catalog rows, computing every condition bitmap.
+     *
+     * @return the matching rows
+     */
+    @Benchmark
+    public int[] filterRows() {
+        return Filters.filterRows(filter, catalog);
+    }
+}
@@ -0,0 +1,71 @@
+package student;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures adding games to a fresh game list by position, range, name and ALL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GameListBenchmark {
+    /**
+     * Number of games in the collection.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * What to add to the list.
+     */
+    @Param({"1", "1-10", "1-1000", "ALL", "Zooloretto"})
+    private String selection;
+
+    /**
+     * The collection, in file order.
+     */
+    private List<BoardGame> games;
+
+    /**
+     * Loads the generated collection.
+     *
+     * @throws IOException if the collection cannot be generated or read
+     */
+    @Setup
+    public void setup() throws IOException {
+        GameCatalog catalog = GamesLoader.loadCatalog(SyntheticCollection.csv(rows));
+        games = IntStream.range(0, catalog.size()).mapToObj(catalog::game)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds the selection to an empty list.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public IGameList addToList() {
+        IGameList list = new GameList();
+        list.addToList(selection, games.stream());
+        return list;
+    }
+}
@@ -0,0 +1,82 @@
+package student;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a collection, from the bundled resource and from csv files of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+    /**
+     * Number of games in the generated csv.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * Generated csv file.
+     */
+    private Path file;
+
+    /**
+     * Generates the csv file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        file = SyntheticCollection.csv(rows);
+    }
+
+    /**
+     * Loads the bundled collection into BoardGame objects, as the console app used to.
+     *
+     * @return the games
+     */
+    @Benchmark
+    public Set<BoardGame> loadGamesFile() {
+        return GamesLoader.loadGamesFile("/collection.csv");
+    }
+
+    /**
+     * Loads the generated csv sequentially.
+     *
+     * @return the catalog
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public GameCatalog loadCatalog() throws IOException {
+        return GamesLoader.loadCatalog(file, false);
+    }
+
+    /**
+     * Loads the generated csv in parallel chunks.
+     *
+     * @return the catalog
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public GameCatalog loadCatalogParallel() throws IOException {
+        return GamesLoader.loadCatalog(file, true);
+    }
+}
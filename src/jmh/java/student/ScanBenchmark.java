@@ -0,0 +1,79 @@
+package student;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scalar and the SIMD column scans for one condition over a whole column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanBenchmark {
+    /**
+     * Number of games in the collection.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * Condition to scan, on double and int columns.
+     */
+    @Param({"rating>=7", "avgweight<3", "minplayers<=2", "yearpublished!=2010"})
+    private String filter;
+
+    /**
+     * The collection as columns.
+     */
+    private GameCatalog catalog;
+    /**
+     * The compiled condition.
+     */
+    private FilterCondition condition;
+
+    /**
+     * Loads the generated collection.
+     *
+     * @throws IOException if the collection cannot be generated or read
+     */
+    @Setup
+    public void setup() throws IOException {
+        catalog = GamesLoader.loadCatalog(SyntheticCollection.csv(rows));
+        condition = FilterCompiler.compile(filter).getConditions().get(0);
+    }
+
+    /**
+     * Tests every row with the condition's predicate.
+     *
+     * @return the match words
+     */
+    @Benchmark
+    public long[] scalar() {
+        return ColumnScan.scalarMatches(catalog, condition);
+    }
+
+    /**
+     * Compares whole vectors of rows at a time.
+     *
+     * @return the match words
+     */
+    @Benchmark
+    public long[] vector() {
+        return VectorScan.matches(catalog, condition);
+    }
+}
@@ -0,0 +1,74 @@
+package student;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting the whole collection on every sortable column with the comparators from
+ * {@link Sorts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+    /**
+     * Number of games in the collection.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * Column to sort on.
+     */
+    @Param({"NAME", "RATING", "DIFFICULTY", "RANK", "MIN_PLAYERS", "MAX_PLAYERS", "MIN_TIME",
+        "MAX_TIME", "YEAR"})
+    private GameData column;
+
+    /**
+     * The collection, in file order.
+     */
+    private List<BoardGame> games;
+
+    /**
+     * Loads the generated collection.
+     *
+     * @throws IOException if the collection cannot be generated or read
+     */
+    @Setup
+    public void setup() throws IOException {
+        GameCatalog catalog = GamesLoader.loadCatalog(SyntheticCollection.csv(rows));
+        games = IntStream.range(0, catalog.size()).mapToObj(catalog::game)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sorts a copy of the collection.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<BoardGame> sort() {
+        List<BoardGame> copy = new ArrayList<>(games);
+        copy.sort(Sorts.createComparator(column));
+        return copy;
+    }
+}
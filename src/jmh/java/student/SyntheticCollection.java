@@ -0,0 +1,44 @@
+package student;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Provides generated collections of any size for the benchmarks.
+ * <p>
+ * Collections come from {@link CollectionGenerator} with a fixed seed, so every run measures the
+ * same data. Generated files are kept in the temp directory and reused across benchmark forks.
+ */
+final class SyntheticCollection {
+    /**
+     * Seed of every generated collection.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SyntheticCollection() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Get a csv file with the given number of rows, generating it on first use.
+     *
+     * @param rows number of games in the file
+     * @return the csv file
+     * @throws IOException if the file cannot be written
+     */
+    static Path csv(int rows) throws IOException {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"),
+                "bg-collection-" + rows + "-" + SEED + ".csv");
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        Path tmp = Files.createTempFile(file.getParent(), "bg-collection", ".tmp");
+        CollectionGenerator.fromDefaultCollection().writeCsv(tmp, rows, SEED);
+        Files.move(tmp, file);
+        return file;
+    }
+}
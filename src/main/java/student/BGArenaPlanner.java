@@ -1,5 +1,7 @@
 package student;
 
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Main entry point for the program.
@@ -10,6 +12,38 @@ public final class BGArenaPlanner {
      */
     private static final String DEFAULT_COLLECTION = "/collection.csv";
 
+    /**
+     * command line option to parse the collection in parallel.
+     */
+    private static final String PARALLEL_OPTION = "--parallel";
+
+    /**
+     * command line option to load a collection file through its binary snapshot.
+     */
+    private static final String SNAPSHOT_OPTION = "--snapshot";
+
+    /**
+     * command line option to serve the planner over HTTP on the port that follows it.
+     */
+    private static final String SERVE_OPTION = "--serve";
+
+    /**
+     * command line option to listen on the host that follows it instead of the loopback
+     * interface.
+     */
+    private static final String HOST_OPTION = "--host";
+
+    /**
+     * usage message printed for invalid command lines.
+     */
+    private static final String USAGE = "Usage: bg_arena_planner [--parallel] [--snapshot] "
+            + "[--serve port [--host host]] [collection.csv]";
+
+    /**
+     * highest TCP port number.
+     */
+    private static final int MAX_PORT = 65535;
+
     /**
      * private constructor as static class.
      */
@@ -19,15 +53,112 @@ public final class BGArenaPlanner {
 
     /**
      * Main entry point for the program.
+     * <p>
+     * Usage: {@code bg_arena_planner [--parallel] [--snapshot] [--serve port [--host host]]
+     * [collection.csv]}.
+     * Without a file, the collection bundled in the resources folder is used. With --parallel,
+     * the collection is parsed in newline aligned chunks on all cores. With --snapshot, a
+     * collection file is loaded from a binary snapshot next to it while the snapshot is up to
+     * date, and the snapshot is written after parsing otherwise. With --serve, the planner is
+     * served over HTTP by a {@link PlannerServer} instead of the console, on the loopback
+     * interface unless --host names another. Unknown options, a second file, --snapshot without
+     * a file and --host without --serve print the usage message instead of running.
      *
-     * @param args command line arguments - not used at this time.
+     * @param args command line arguments - optional flags and a path to a collection csv file.
      */
     public static void main(String[] args) {
-        IPlanner planner = new Planner(GamesLoader.loadGamesFile(DEFAULT_COLLECTION));
-        IGameList list = new GameList();
+        String file = null;
+        boolean parallel = false;
+        boolean snapshot = false;
+        int port = -1;
+        String host = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ((SERVE_OPTION.equals(arg) || HOST_OPTION.equals(arg)) && i + 1 == args.length) {
+                printUsageError("Missing value after " + arg);
+                return;
+            } else if (SERVE_OPTION.equals(arg)) {
+                port = parsePort(args[++i]);
+                if (port < 0) {
+                    printUsageError("Invalid port: " + args[i]);
+                    return;
+                }
+            } else if (HOST_OPTION.equals(arg)) {
+                host = args[++i];
+            } else if (PARALLEL_OPTION.equals(arg)) {
+                parallel = true;
+            } else if (SNAPSHOT_OPTION.equals(arg)) {
+                snapshot = true;
+            } else if (arg.startsWith("--")) {
+                printUsageError("Unknown option: " + arg);
+                return;
+            } else if (file != null) {
+                printUsageError("More than one collection file: " + file + ", " + arg);
+                return;
+            } else {
+                file = arg;
+            }
+        }
+        // flags that would do nothing are mistakes, not something to ignore
+        if (snapshot && file == null) {
+            printUsageError(SNAPSHOT_OPTION + " needs a collection file");
+            return;
+        }
+        if (host != null && port < 0) {
+            printUsageError(HOST_OPTION + " only applies with " + SERVE_OPTION);
+            return;
+        }
+
+        GameCatalog catalog;
+        if (file != null) {
+            try {
+                catalog = snapshot ? GamesLoader.loadCatalogWithSnapshot(Path.of(file), parallel)
+                        : GamesLoader.loadCatalog(Path.of(file), parallel);
+            } catch (IOException e) {
+                System.err.println("Error reading file: " + e.getMessage());
+                return;
+            }
+        } else {
+            catalog = GamesLoader.loadCatalog(DEFAULT_COLLECTION, parallel);
+        }
+        if (port >= 0) {
+            try {
+                PlannerServer server = new PlannerServer(catalog, host, port);
+                server.start();
+                System.out.println("Serving " + catalog.size() + " games on port " + server.port());
+            } catch (IOException e) {
+                System.err.println("Error starting server: " + e.getMessage());
+            }
+            return;
+        }
+        IPlanner planner = new Planner(catalog);
+        IGameList list = new GameList(catalog);
         ConsoleApp app = new ConsoleApp(list, planner);
         app.start();
     }
 
+    /**
+     * Prints what is wrong with the command line, followed by the usage message.
+     *
+     * @param message the problem
+     */
+    private static void printUsageError(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+    }
 
+    /**
+     * Parses a port number.
+     *
+     * @param text the port as text
+     * @return the port, or -1 if the text is not a port number
+     */
+    private static int parsePort(String text) {
+        try {
+            int port = Integer.parseInt(text);
+            return port <= MAX_PORT && port >= 0 ? port : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
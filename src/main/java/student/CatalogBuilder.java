@@ -0,0 +1,230 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Collects games row by row into growable column arrays, and turns them into a
+ * {@link GameCatalog} at the end. Used by the loaders so that no BoardGame objects are created
+ * while reading a collection.
+ * <p>
+ * Not thread safe; parallel loaders use one builder per task and {@link #append} them.
+ * <p>
+ * Rows that repeat the id and name of an earlier row are dropped when the catalog is built,
+ * keeping the first, the same as adding the games to a set (BoardGame equality is id and name).
+ */
+final class CatalogBuilder {
+    /**
+     * Starting capacity of the column arrays.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Number of rows added.
+     */
+    private int size;
+    /**
+     * Game names.
+     */
+    private String[] names;
+    /**
+     * Unique identifiers.
+     */
+    private int[] ids;
+    /**
+     * Minimum number of players.
+     */
+    private int[] minPlayers;
+    /**
+     * Maximum number of players.
+     */
+    private int[] maxPlayers;
+    /**
+     * Minimum play time in minutes.
+     */
+    private int[] minPlayTime;
+    /**
+     * Maximum play time in minutes.
+     */
+    private int[] maxPlayTime;
+    /**
+     * Average difficulty.
+     */
+    private double[] difficulty;
+    /**
+     * Rank.
+     */
+    private int[] rank;
+    /**
+     * Average rating.
+     */
+    private double[] rating;
+    /**
+     * Year published.
+     */
+    private int[] yearPublished;
+
+    /**
+     * Constructs an empty builder.
+     */
+    CatalogBuilder() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty builder with room for a number of rows.
+     *
+     * @param capacity expected number of rows
+     */
+    CatalogBuilder(int capacity) {
+        int n = Math.max(capacity, 16);
+        names = new String[n];
+        ids = new int[n];
+        minPlayers = new int[n];
+        maxPlayers = new int[n];
+        minPlayTime = new int[n];
+        maxPlayTime = new int[n];
+        difficulty = new double[n];
+        rank = new int[n];
+        rating = new double[n];
+        yearPublished = new int[n];
+    }
+
+    /**
+     * Get the number of rows added so far.
+     *
+     * @return the row count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a row.
+     *
+     * @param name          game name
+     * @param id            unique identifier
+     * @param minPlayersVal minimum number of players
+     * @param maxPlayersVal maximum number of players
+     * @param minTime       minimum play time in minutes
+     * @param maxTime       maximum play time in minutes
+     * @param difficultyVal average difficulty
+     * @param rankVal       rank
+     * @param ratingVal     average rating
+     * @param year          year published
+     */
+    void add(String name, int id, int minPlayersVal, int maxPlayersVal, int minTime, int maxTime,
+             double difficultyVal, int rankVal, double ratingVal, int year) {
+        if (size == names.length) {
+            grow(size * 2);
+        }
+        names[size] = name;
+        ids[size] = id;
+        minPlayers[size] = minPlayersVal;
+        maxPlayers[size] = maxPlayersVal;
+        minPlayTime[size] = minTime;
+        maxPlayTime[size] = maxTime;
+        difficulty[size] = difficultyVal;
+        rank[size] = rankVal;
+        rating[size] = ratingVal;
+        yearPublished[size] = year;
+        size++;
+    }
+
+    /**
+     * Appends all rows of another builder after the rows of this one.
+     *
+     * @param other the builder to copy rows from
+     */
+    void append(CatalogBuilder other) {
+        if (size + other.size > names.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.names, 0, names, size, other.size);
+        System.arraycopy(other.ids, 0, ids, size, other.size);
+        System.arraycopy(other.minPlayers, 0, minPlayers, size, other.size);
+        System.arraycopy(other.maxPlayers, 0, maxPlayers, size, other.size);
+        System.arraycopy(other.minPlayTime, 0, minPlayTime, size, other.size);
+        System.arraycopy(other.maxPlayTime, 0, maxPlayTime, size, other.size);
+        System.arraycopy(other.difficulty, 0, difficulty, size, other.size);
+        System.arraycopy(other.rank, 0, rank, size, other.size);
+        System.arraycopy(other.rating, 0, rating, size, other.size);
+        System.arraycopy(other.yearPublished, 0, yearPublished, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Builds the catalog from the rows added so far. The builder hands its arrays to the
+     * catalog, so it must not be used afterwards.
+     *
+     * @return the catalog
+     */
+    GameCatalog build() {
+        dropDuplicates();
+        grow(size);
+        return new GameCatalog(size, names, ids, minPlayers, maxPlayers, minPlayTime, maxPlayTime,
+                difficulty, rank, rating, yearPublished);
+    }
+
+    /**
+     * Drops the rows whose id and name equal those of an earlier row, moving the kept rows up.
+     */
+    private void dropDuplicates() {
+        int[] slots = new int[Integer.highestOneBit(Math.max(1, size) * 2) * 2];
+        int mask = slots.length - 1;
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            int slot = GameCatalog.hashId(ids[row]) & mask;
+            boolean duplicate = false;
+            while (slots[slot] != 0 && !duplicate) {
+                int other = slots[slot] - 1;
+                duplicate = ids[other] == ids[row] && names[other].equals(names[row]);
+                slot = (slot + 1) & mask;
+            }
+            if (duplicate) {
+                continue;
+            }
+            if (kept != row) {
+                moveRow(row, kept);
+            }
+            slots[slot] = ++kept;
+        }
+        size = kept;
+    }
+
+    /**
+     * Copies a row to a lower position.
+     *
+     * @param from the row to copy
+     * @param to   its new position
+     */
+    private void moveRow(int from, int to) {
+        names[to] = names[from];
+        ids[to] = ids[from];
+        minPlayers[to] = minPlayers[from];
+        maxPlayers[to] = maxPlayers[from];
+        minPlayTime[to] = minPlayTime[from];
+        maxPlayTime[to] = maxPlayTime[from];
+        difficulty[to] = difficulty[from];
+        rank[to] = rank[from];
+        rating[to] = rating[from];
+        yearPublished[to] = yearPublished[from];
+    }
+
+    /**
+     * Resizes every column array.
+     *
+     * @param capacity the new capacity
+     */
+    private void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        minPlayers = Arrays.copyOf(minPlayers, capacity);
+        maxPlayers = Arrays.copyOf(maxPlayers, capacity);
+        minPlayTime = Arrays.copyOf(minPlayTime, capacity);
+        maxPlayTime = Arrays.copyOf(maxPlayTime, capacity);
+        difficulty = Arrays.copyOf(difficulty, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+        rating = Arrays.copyOf(rating, capacity);
+        yearPublished = Arrays.copyOf(yearPublished, capacity);
+    }
+}
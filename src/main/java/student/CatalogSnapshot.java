@@ -0,0 +1,250 @@
+package student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes a compact binary snapshot of a {@link GameCatalog}, so a collection can be
+ * loaded again without parsing its csv.
+ * <p>
+ * Layout, little endian:
+ * <pre>
+ *  int    magic ("BGAS")
+ *  int    format version
+ *  int    row count (n)
+ *  int    size of the name bytes
+ *  long   size of the source csv in bytes, or -1
+ *  long   last modified time of the source csv in milliseconds, or -1
+ *  int[n] id, minplayers, maxplayers, minplaytime, maxplaytime, rank, yearpublished
+ *  double[n] avgweight, average
+ *  int[n + 1] start of each name in the name bytes
+ *  byte[] names, UTF-8
+ *  long   CRC32 of everything above
+ * </pre>
+ * Reading maps the file and copies each column block into its array with one bulk get; the
+ * catalog builds its indexes when a query first needs them, not while the file is read. The
+ * size and modification time of the csv the snapshot was made from tell if it is still up to
+ * date.
+ */
+public final class CatalogSnapshot {
+    /**
+     * Marks a snapshot file ("BGAS" in little endian).
+     */
+    private static final int MAGIC = 0x53414742;
+    /**
+     * Version of the layout; bumped whenever the layout changes.
+     */
+    private static final int VERSION = 2;
+    /**
+     * Size of the fixed header in bytes.
+     */
+    private static final int HEADER_BYTES = 32;
+    /**
+     * Source size and time of a snapshot that was not made from a csv.
+     */
+    private static final long NO_SOURCE = -1;
+    /**
+     * Int columns, in file order.
+     */
+    private static final GameData[] INT_COLUMNS = {GameData.ID, GameData.MIN_PLAYERS,
+        GameData.MAX_PLAYERS, GameData.MIN_TIME, GameData.MAX_TIME, GameData.RANK, GameData.YEAR};
+    /**
+     * Double columns, in file order.
+     */
+    private static final GameData[] DOUBLE_COLUMNS = {GameData.DIFFICULTY, GameData.RATING};
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CatalogSnapshot() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Writes a catalog to a snapshot file that is not tied to a csv file.
+     *
+     * @param catalog the catalog to write
+     * @param file    the snapshot file
+     * @throws IOException if the file cannot be written, or the snapshot would exceed 2 GB
+     */
+    public static void write(GameCatalog catalog, Path file) throws IOException {
+        write(catalog, file, NO_SOURCE, NO_SOURCE);
+    }
+
+    /**
+     * Writes a catalog to a snapshot file, recording the csv it was parsed from. The file is
+     * written next to the target and moved in place, atomically where the file system supports
+     * it, so readers never see a half written snapshot. The temporary file is removed if
+     * anything fails.
+     *
+     * @param catalog        the catalog to write
+     * @param file           the snapshot file
+     * @param sourceSize     size of the csv in bytes, taken before it was parsed
+     * @param sourceModified last modified time of the csv in milliseconds, taken before it was
+     *                       parsed
+     * @throws IOException if the file cannot be written, or the snapshot would exceed 2 GB
+     */
+    public static void write(GameCatalog catalog, Path file, long sourceSize,
+                             long sourceModified) throws IOException {
+        int n = catalog.size();
+        byte[][] names = new byte[n][];
+        long nameBytes = 0;
+        for (int row = 0; row < n; row++) {
+            names[row] = catalog.name(row).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[row].length;
+        }
+        long total = HEADER_BYTES + (long) n * (4 * INT_COLUMNS.length + 8 * DOUBLE_COLUMNS.length)
+                + 4L * (n + 1) + nameBytes + 8;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a snapshot: " + total + " bytes");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt((int) nameBytes).putLong(sourceSize)
+                .putLong(sourceModified);
+        for (GameData col : INT_COLUMNS) {
+            buf.asIntBuffer().put(catalog.intColumn(col), 0, n);
+            buf.position(buf.position() + 4 * n);
+        }
+        for (GameData col : DOUBLE_COLUMNS) {
+            buf.asDoubleBuffer().put(catalog.doubleColumn(col), 0, n);
+            buf.position(buf.position() + 8 * n);
+        }
+        int offset = 0;
+        for (int row = 0; row < n; row++) {
+            buf.putInt(offset);
+            offset += names[row].length;
+        }
+        buf.putInt(offset);
+        for (byte[] name : names) {
+            buf.put(name);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putLong(crc.getValue());
+        buf.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads a catalog from a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the catalog
+     * @throws IOException if the file cannot be read, is not a snapshot of this version, or
+     *                     fails its checksum
+     */
+    public static GameCatalog read(Path file) throws IOException {
+        return read(file, NO_SOURCE, NO_SOURCE, false);
+    }
+
+    /**
+     * Reads a catalog from a snapshot file made from a csv file that still has the given size
+     * and modification time.
+     *
+     * @param file           the snapshot file
+     * @param sourceSize     current size of the csv in bytes
+     * @param sourceModified current last modified time of the csv in milliseconds
+     * @return the catalog
+     * @throws IOException if the file cannot be read, is not a snapshot of this version, fails
+     *                     its checksum, or was made from a different version of the csv
+     */
+    public static GameCatalog read(Path file, long sourceSize, long sourceModified)
+            throws IOException {
+        return read(file, sourceSize, sourceModified, true);
+    }
+
+    /**
+     * Reads a catalog from a snapshot file, checking its source if asked to.
+     *
+     * @param file           the snapshot file
+     * @param sourceSize     current size of the csv in bytes
+     * @param sourceModified current last modified time of the csv in milliseconds
+     * @param checkSource    true to reject a snapshot made from another version of the csv
+     * @return the catalog
+     * @throws IOException if the file cannot be read or is not a valid, current snapshot
+     */
+    private static GameCatalog read(Path file, long sourceSize, long sourceModified,
+                                    boolean checkSource) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 8 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                throw new IOException("Not a version " + VERSION + " snapshot: " + file);
+            }
+            if (checkSource && (buf.getLong(16) != sourceSize
+                    || buf.getLong(24) != sourceModified)) {
+                throw new IOException("Snapshot is out of date: " + file);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate().limit((int) size - 8));
+            if (crc.getValue() != buf.getLong((int) size - 8)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            int n = buf.getInt(8);
+            int nameBytes = buf.getInt(12);
+            long expected = HEADER_BYTES + (long) n * (4 * INT_COLUMNS.length
+                    + 8 * DOUBLE_COLUMNS.length) + 4L * (n + 1) + nameBytes + 8;
+            if (n < 0 || nameBytes < 0 || expected != size) {
+                throw new IOException("Snapshot size mismatch: " + file);
+            }
+
+            buf.position(HEADER_BYTES);
+            int[][] ints = new int[INT_COLUMNS.length][n];
+            for (int[] column : ints) {
+                buf.asIntBuffer().get(column);
+                buf.position(buf.position() + 4 * n);
+            }
+            double[][] doubles = new double[DOUBLE_COLUMNS.length][n];
+            for (double[] column : doubles) {
+                buf.asDoubleBuffer().get(column);
+                buf.position(buf.position() + 8 * n);
+            }
+            int[] offsets = new int[n + 1];
+            buf.asIntBuffer().get(offsets);
+            buf.position(buf.position() + 4 * (n + 1));
+            byte[] table = new byte[nameBytes];
+            buf.get(table);
+            String[] names = new String[n];
+            for (int row = 0; row < n; row++) {
+                names[row] = new String(table, offsets[row], offsets[row + 1] - offsets[row],
+                        StandardCharsets.UTF_8);
+            }
+            return new GameCatalog(n, names, ints[0], ints[1], ints[2], ints[3], ints[4],
+                    doubles[0], ints[5], doubles[1], ints[6]);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + file, e);
+        }
+    }
+}
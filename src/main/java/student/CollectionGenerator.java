@@ -0,0 +1,370 @@
+package student;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic collections of any size that look like a real one.
+ * <p>
+ * The generator learns the distribution of every column the loader reads from a source catalog,
+ * by keeping the source values sorted, and draws each column of a new game from it on its own.
+ * Ratings and difficulties get a small jitter so large collections do not consist of a few
+ * hundred repeated values; zero (unrated) stays zero. Ranked games get a rank scaled to the size
+ * of the new collection. Names are built from the words of the source names up to a length drawn
+ * from the source name lengths. Ids are 1 to n.
+ * <p>
+ * The same source, row count and seed always give the same collection.
+ */
+public final class CollectionGenerator {
+    /**
+     * Collection the default generator learns from.
+     */
+    private static final String DEFAULT_SOURCE = "/collection.csv";
+    /**
+     * Header of generated csv files, the columns the loader reads.
+     */
+    private static final String HEADER = "objectname,objectid,average,avgweight,rank,minplayers,"
+            + "maxplayers,minplaytime,maxplaytime,yearpublished";
+    /**
+     * Largest change added to a rating or difficulty.
+     */
+    private static final double JITTER = 0.05;
+    /**
+     * Decimal places kept on ratings and difficulties.
+     */
+    private static final double ROUNDING = 100_000.0;
+
+    /**
+     * Source ratings, sorted.
+     */
+    private final double[] ratings;
+    /**
+     * Source difficulties, sorted.
+     */
+    private final double[] difficulties;
+    /**
+     * Source ranks, sorted.
+     */
+    private final int[] ranks;
+    /**
+     * Source minimum players, sorted.
+     */
+    private final int[] minPlayers;
+    /**
+     * Source maximum players, sorted.
+     */
+    private final int[] maxPlayers;
+    /**
+     * Source minimum play times, sorted.
+     */
+    private final int[] minPlayTimes;
+    /**
+     * Source maximum play times, sorted.
+     */
+    private final int[] maxPlayTimes;
+    /**
+     * Source years published, sorted.
+     */
+    private final int[] years;
+    /**
+     * Source name lengths, sorted.
+     */
+    private final int[] nameLengths;
+    /**
+     * Words of the source names.
+     */
+    private final String[] words;
+    /**
+     * Highest source rank, used to scale ranks.
+     */
+    private final int maxRank;
+
+    /**
+     * Constructs a generator that learns from a catalog.
+     *
+     * @param source the catalog to learn from
+     * @throws IllegalArgumentException if the catalog is empty
+     */
+    public CollectionGenerator(GameCatalog source) {
+        int n = source.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("Cannot learn from an empty collection.");
+        }
+        ratings = sorted(source.doubleColumn(GameData.RATING), n);
+        difficulties = sorted(source.doubleColumn(GameData.DIFFICULTY), n);
+        ranks = sorted(source.intColumn(GameData.RANK), n);
+        minPlayers = sorted(source.intColumn(GameData.MIN_PLAYERS), n);
+        maxPlayers = sorted(source.intColumn(GameData.MAX_PLAYERS), n);
+        minPlayTimes = sorted(source.intColumn(GameData.MIN_TIME), n);
+        maxPlayTimes = sorted(source.intColumn(GameData.MAX_TIME), n);
+        years = sorted(source.intColumn(GameData.YEAR), n);
+        maxRank = Math.max(1, ranks[n - 1]);
+
+        nameLengths = new int[n];
+        List<String> allWords = new ArrayList<>();
+        for (int row = 0; row < n; row++) {
+            String name = source.name(row);
+            nameLengths[row] = name.length();
+            for (String word : name.split(" ")) {
+                if (!word.isEmpty()) {
+                    allWords.add(word);
+                }
+            }
+        }
+        Arrays.sort(nameLengths);
+        if (allWords.isEmpty()) {
+            allWords.add("Game");
+        }
+        words = allWords.toArray(new String[0]);
+    }
+
+    /**
+     * Constructs a generator that learns from the collection bundled in the resources folder.
+     *
+     * @return the generator
+     */
+    public static CollectionGenerator fromDefaultCollection() {
+        return new CollectionGenerator(GamesLoader.loadCatalog(DEFAULT_SOURCE));
+    }
+
+    /**
+     * Generates a collection into a catalog.
+     *
+     * @param rows number of games
+     * @param seed random seed
+     * @return the catalog
+     */
+    public GameCatalog generate(int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CatalogBuilder builder = new CatalogBuilder(rows);
+        for (int row = 0; row < rows; row++) {
+            Game game = next(random, row + 1, rows);
+            builder.add(game.name, game.id, game.minPlayers, game.maxPlayers, game.minPlayTime,
+                    game.maxPlayTime, game.difficulty, game.rank, game.rating, game.year);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a generated collection as a csv file the loader can read.
+     *
+     * @param file the csv file
+     * @param rows number of games
+     * @param seed random seed
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path file, int rows, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (int row = 0; row < rows; row++) {
+                Game game = next(random, row + 1, rows);
+                out.write(game.name + "," + game.id + "," + game.rating + "," + game.difficulty
+                        + "," + game.rank + "," + game.minPlayers + "," + game.maxPlayers + ","
+                        + game.minPlayTime + "," + game.maxPlayTime + "," + game.year);
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes a generated collection as a binary {@link CatalogSnapshot}.
+     *
+     * @param file the snapshot file
+     * @param rows number of games
+     * @param seed random seed
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSnapshot(Path file, int rows, long seed) throws IOException {
+        CatalogSnapshot.write(generate(rows, seed), file);
+    }
+
+    /**
+     * Draws the next game. Every column takes a fixed number of draws, so the sequence only
+     * depends on the seed.
+     *
+     * @param random the random source
+     * @param id     id of the game
+     * @param rows   size of the collection being generated
+     * @return the game
+     */
+    private Game next(SplittableRandom random, int id, int rows) {
+        Game game = new Game();
+        game.id = id;
+        game.name = nextName(random);
+        game.rating = jitter(random, pick(random, ratings), ratings);
+        game.difficulty = jitter(random, pick(random, difficulties), difficulties);
+        int sourceRank = pick(random, ranks);
+        game.rank = sourceRank == 0 ? 0
+                : 1 + (int) ((sourceRank - 1 + random.nextDouble()) * rows / maxRank);
+        int players = pick(random, minPlayers);
+        int playersMax = pick(random, maxPlayers);
+        game.minPlayers = Math.min(players, playersMax);
+        game.maxPlayers = Math.max(players, playersMax);
+        int time = pick(random, minPlayTimes);
+        int timeMax = pick(random, maxPlayTimes);
+        game.minPlayTime = Math.min(time, timeMax);
+        game.maxPlayTime = Math.max(time, timeMax);
+        game.year = pick(random, years);
+        return game;
+    }
+
+    /**
+     * Builds a name from source words, at least as long as a drawn source name length.
+     *
+     * @param random the random source
+     * @return the name
+     */
+    private String nextName(SplittableRandom random) {
+        int length = pick(random, nameLengths);
+        StringBuilder name = new StringBuilder(words[random.nextInt(words.length)]);
+        while (name.length() < length) {
+            name.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Moves a non zero value by a small random amount, within the range of the source values.
+     *
+     * @param random the random source
+     * @param value  the drawn value
+     * @param source the sorted source values
+     * @return the value with jitter, rounded
+     */
+    private static double jitter(SplittableRandom random, double value, double[] source) {
+        double delta = (random.nextDouble() * 2 - 1) * JITTER;
+        if (value == 0) {
+            return 0;
+        }
+        double moved = Math.max(source[0], Math.min(source[source.length - 1], value + delta));
+        return Math.round(moved * ROUNDING) / ROUNDING;
+    }
+
+    /**
+     * Draws a source value.
+     *
+     * @param random the random source
+     * @param values the source values
+     * @return one of the values
+     */
+    private static int pick(SplittableRandom random, int[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Draws a source value.
+     *
+     * @param random the random source
+     * @param values the source values
+     * @return one of the values
+     */
+    private static double pick(SplittableRandom random, double[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Copies and sorts the first values of a column.
+     *
+     * @param column the column
+     * @param n      number of values
+     * @return the sorted copy
+     */
+    private static int[] sorted(int[] column, int n) {
+        int[] copy = Arrays.copyOf(column, n);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Copies and sorts the first values of a column.
+     *
+     * @param column the column
+     * @param n      number of values
+     * @return the sorted copy
+     */
+    private static double[] sorted(double[] column, int n) {
+        double[] copy = Arrays.copyOf(column, n);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Generates a collection from the command line.
+     * <p>
+     * Usage: {@code CollectionGenerator <rows> <file> [seed]}. Files ending in .snapshot are
+     * written as binary snapshots, anything else as csv.
+     *
+     * @param args row count, output file and optional seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CollectionGenerator <rows> <file> [seed]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]);
+        Path file = Path.of(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        CollectionGenerator generator = fromDefaultCollection();
+        if (file.getFileName().toString().endsWith(".snapshot")) {
+            generator.writeSnapshot(file, rows, seed);
+        } else {
+            generator.writeCsv(file, rows, seed);
+        }
+    }
+
+    /**
+     * Column values of one generated game.
+     */
+    private static final class Game {
+        /**
+         * Name.
+         */
+        private String name;
+        /**
+         * Id.
+         */
+        private int id;
+        /**
+         * Average rating.
+         */
+        private double rating;
+        /**
+         * Average difficulty.
+         */
+        private double difficulty;
+        /**
+         * Rank.
+         */
+        private int rank;
+        /**
+         * Minimum number of players.
+         */
+        private int minPlayers;
+        /**
+         * Maximum number of players.
+         */
+        private int maxPlayers;
+        /**
+         * Minimum play time.
+         */
+        private int minPlayTime;
+        /**
+         * Maximum play time.
+         */
+        private int maxPlayTime;
+        /**
+         * Year published.
+         */
+        private int year;
+    }
+}
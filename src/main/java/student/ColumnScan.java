@@ -0,0 +1,158 @@
+package student;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Evaluates a filter condition over a whole catalog column into match words, one bit per row.
+ * <p>
+ * Numeric columns can be scanned with the SIMD kernel in {@code VectorScan}, which compares many
+ * rows per instruction and turns the lane masks straight into words. The kernel uses the
+ * incubating {@code jdk.incubator.vector} module, so it is compiled in its own source set and
+ * loaded by name, and it is off unless the JVM runs with
+ * {@code --add-modules jdk.incubator.vector} and {@code -Dbgarena.vector=true}; otherwise, and
+ * for names, every row is tested with the condition's scalar predicate.
+ */
+final class ColumnScan {
+    /**
+     * System property that turns the vector kernel on.
+     */
+    static final String VECTOR_PROPERTY = "bgarena.vector";
+    /**
+     * Name of the module the vector kernel needs.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    /**
+     * Name of the vector kernel's class.
+     */
+    private static final String VECTOR_CLASS = "student.VectorScan";
+    /**
+     * The kernel numeric scans use, or null to test every row; fixed when the class loads.
+     */
+    private static final Kernel VECTOR = Boolean.getBoolean(VECTOR_PROPERTY)
+            ? enabledVectorKernel() : null;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ColumnScan() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Checks if the vector kernel is turned on.
+     *
+     * @return true if numeric scans use the vector kernel
+     */
+    static boolean isVectorEnabled() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Loads the vector kernel, whether or not it is turned on.
+     *
+     * @return the kernel, or null if the vector module or the kernel's class is missing
+     */
+    static Kernel vectorKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (Kernel) Class.forName(VECTOR_CLASS).getDeclaredField("KERNEL").get(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the vector kernel once it has been turned on, and says so if it cannot be used.
+     *
+     * @return the kernel, or null
+     */
+    private static Kernel enabledVectorKernel() {
+        Kernel kernel = vectorKernel();
+        if (kernel == null) {
+            System.err.println("Vector kernel unavailable, scanning one row at a time.");
+        }
+        return kernel;
+    }
+
+    /**
+     * Finds the rows that match a condition.
+     *
+     * @param catalog   the catalog
+     * @param condition the condition
+     * @return the match words, bit {@code row % 64} of word {@code row / 64} set for every match
+     */
+    static long[] matches(GameCatalog catalog, FilterCondition condition) {
+        return matches(catalog, condition, QueryExecutor.shared());
+    }
+
+    /**
+     * Finds the rows that match a condition, splitting large columns into row ranges scanned on
+     * an executor's threads.
+     *
+     * @param catalog   the catalog
+     * @param condition the condition
+     * @param executor  the executor
+     * @return the match words
+     */
+    static long[] matches(GameCatalog catalog, FilterCondition condition,
+                          QueryExecutor executor) {
+        long[] words = new long[(catalog.size() + 63) / 64];
+        if (VECTOR != null && condition.getColumn() != GameData.NAME) {
+            executor.forEachRange(catalog.size(),
+                    (from, to) -> VECTOR.matches(catalog, condition, from, to, words));
+        } else {
+            IntPredicate matches = condition.bind(catalog);
+            executor.forEachRange(catalog.size(),
+                    (from, to) -> scalarMatches(matches, from, to, words));
+        }
+        return words;
+    }
+
+    /**
+     * Finds the rows that match a condition one row at a time.
+     *
+     * @param catalog   the catalog
+     * @param condition the condition
+     * @return the match words
+     */
+    static long[] scalarMatches(GameCatalog catalog, FilterCondition condition) {
+        long[] words = new long[(catalog.size() + 63) / 64];
+        scalarMatches(condition.bind(catalog), 0, catalog.size(), words);
+        return words;
+    }
+
+    /**
+     * Sets the bits of the matching rows in a range.
+     *
+     * @param matches the condition's predicate
+     * @param from    first row
+     * @param to      end row, exclusive
+     * @param words   the match words to set bits in
+     */
+    static void scalarMatches(IntPredicate matches, int from, int to, long[] words) {
+        for (int row = from; row < to; row++) {
+            if (matches.test(row)) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+    }
+
+    /**
+     * A scan of a row range of a numeric column, implemented by the vector kernel.
+     */
+    interface Kernel {
+        /**
+         * Sets the bits of the rows in a range whose numeric column value matches a condition.
+         *
+         * @param catalog   the catalog
+         * @param condition a condition on a numeric column
+         * @param from      first row, a multiple of 64
+         * @param to        end row, exclusive
+         * @param words     the match words to set bits in
+         */
+        void matches(GameCatalog catalog, FilterCondition condition, int from, int to,
+                     long[] words);
+    }
+}
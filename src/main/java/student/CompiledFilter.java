@@ -0,0 +1,127 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable, ready to run filter: the comma separated conditions of a filter string, each
+ * already parsed into a {@link FilterCondition}.
+ * <p>
+ * Conditions that could not be parsed are dropped when compiling, the same way the text filters
+ * have always ignored them. An empty compiled filter matches every game.
+ */
+public final class CompiledFilter {
+    /**
+     * Filter that matches every game.
+     */
+    public static final CompiledFilter ALL = new CompiledFilter(List.of());
+
+    /**
+     * Conditions that must all hold.
+     */
+    private final List<FilterCondition> conditions;
+
+    /**
+     * Constructs a compiled filter from its conditions.
+     *
+     * @param conditions conditions that must all hold
+     */
+    CompiledFilter(List<FilterCondition> conditions) {
+        this.conditions = List.copyOf(conditions);
+    }
+
+    /**
+     * Get the conditions of the filter.
+     *
+     * @return an unmodifiable list of conditions
+     */
+    public List<FilterCondition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Checks if the filter has no conditions.
+     *
+     * @return true if every game matches
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * Combines this filter with another one. Conditions of the other filter that are already
+     * part of this one are not added again.
+     *
+     * @param other the filter to add
+     * @return a filter requiring the conditions of both, or this filter if nothing is new
+     */
+    public CompiledFilter and(CompiledFilter other) {
+        if (isEmpty()) {
+            return other;
+        }
+        Set<String> seen = new HashSet<>();
+        for (FilterCondition condition : conditions) {
+            seen.add(condition.toString());
+        }
+        List<FilterCondition> merged = new ArrayList<>(conditions);
+        for (FilterCondition condition : other.conditions) {
+            if (seen.add(condition.toString())) {
+                merged.add(condition);
+            }
+        }
+        return merged.size() == conditions.size() ? this : new CompiledFilter(merged);
+    }
+
+    /**
+     * Checks a board game against all conditions.
+     *
+     * @param game the game to check
+     * @return true if the game matches every condition
+     */
+    public boolean test(BoardGame game) {
+        for (FilterCondition condition : conditions) {
+            if (!condition.test(game)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the filter as a predicate over board games.
+     *
+     * @return the predicate
+     */
+    public Predicate<BoardGame> asPredicate() {
+        return this::test;
+    }
+
+    /**
+     * Binds every condition to the columns of a catalog.
+     *
+     * @param catalog the catalog to check rows of
+     * @return a predicate over the catalog's rows
+     */
+    public IntPredicate bind(GameCatalog catalog) {
+        IntPredicate matches = row -> true;
+        for (FilterCondition condition : conditions) {
+            matches = matches.and(condition.bind(catalog));
+        }
+        return matches;
+    }
+
+    /**
+     * Get the filter in its normalized text form.
+     *
+     * @return the normalized conditions, separated by commas
+     */
+    @Override
+    public String toString() {
+        return conditions.stream().map(FilterCondition::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,119 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates filter conditions into {@link RowBitmap}s for one catalog, and keeps the bitmaps of
+ * recently used conditions so a repeated condition costs nothing the next time.
+ * <p>
+ * A != condition is stored as the bitmap of its == form and applied with
+ * {@link RowBitmap#andNot(RowBitmap)}, so both forms share one cache entry.
+ * <p>
+ * Safe to use from many threads: bitmaps are immutable and the cache does not lock on lookups.
+ */
+final class ConditionBitmaps {
+    /**
+     * Maximum number of condition bitmaps kept per catalog.
+     */
+    private static final int CACHE_CAPACITY = 64;
+    /**
+     * A range of the sorted index is used when it holds fewer than one row in this many; broader
+     * conditions scan the column, since sorting a large range costs more than a linear scan.
+     */
+    private static final int BROAD_RANGE = 32;
+
+    /**
+     * The catalog the conditions are evaluated against.
+     */
+    private final GameCatalog catalog;
+
+    /**
+     * Condition bitmaps by normalized condition text, rarely used ones dropped first.
+     */
+    private final SampledCache<String, RowBitmap> cache = new SampledCache<>(CACHE_CAPACITY);
+
+    /**
+     * Constructs the bitmap evaluator for a catalog.
+     *
+     * @param catalog the catalog
+     */
+    ConditionBitmaps(GameCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Evaluates a whole filter into the bitmap of matching rows.
+     *
+     * @param filter the compiled filter
+     * @return the rows that match every condition
+     */
+    RowBitmap evaluate(CompiledFilter filter) {
+        RowBitmap result = null;
+        for (FilterCondition condition : filter.getConditions()) {
+            if (condition.getOperator() != Operations.NOT_EQUALS) {
+                RowBitmap matches = get(condition);
+                result = result == null ? matches : result.and(matches);
+            }
+        }
+        if (result == null) {
+            result = get(null);
+        }
+        for (FilterCondition condition : filter.getConditions()) {
+            if (condition.getOperator() == Operations.NOT_EQUALS) {
+                result = result.andNot(get(condition.withOperator(Operations.EQUALS)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the bitmap of one condition, from the cache if possible.
+     *
+     * @param condition the condition, or null for every row
+     * @return the rows that match the condition
+     */
+    RowBitmap get(FilterCondition condition) {
+        String key = condition == null ? "" : condition.toString();
+        RowBitmap cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return cache.put(key, compute(condition));
+    }
+
+    /**
+     * Drops every cached bitmap, so the next evaluations compute them again.
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Computes the bitmap of a condition, through the trigram index for name searches, the name
+     * trie for name equality and the sorted index for narrow ranges. Anything else scans the
+     * column, with the vector kernel when it is turned on.
+     *
+     * @param condition the condition, or null for every row
+     * @return the rows that match the condition
+     */
+    private RowBitmap compute(FilterCondition condition) {
+        if (condition == null) {
+            return RowBitmap.range(catalog.size());
+        }
+        if (condition.getOperator() == Operations.CONTAINS) {
+            return catalog.nameIndex().contains(condition.getText());
+        }
+        if (condition.getColumn() == GameData.NAME
+                && condition.getOperator() == Operations.EQUALS) {
+            int[] rows = catalog.nameTrie().exact(condition.getText());
+            return RowBitmap.of(rows, rows.length);
+        }
+        GameIndex.Range range = catalog.index().range(condition);
+        if (range != null && (long) range.size() * BROAD_RANGE < catalog.size()) {
+            int[] rows = range.rows();
+            Arrays.sort(rows);
+            return RowBitmap.of(rows, rows.length);
+        }
+        return RowBitmap.fromWords(ColumnScan.matches(catalog, condition));
+    }
+}
@@ -1,6 +1,5 @@
 package student;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.Scanner;
@@ -145,30 +144,20 @@ public class ConsoleApp {
                 return; // leave early.
             }
             if (filter.contains(ConsoleText.CMD_SORT_OPTION.toString())) {
-                // break it up, figure out sort
-                boolean ascending = true; // default
+                // break it up, figure out the sort columns, each with an optional direction
                 String[] parts = filter.split(ConsoleText.CMD_SORT_OPTION.toString());
+                List<SortKey> sortOn = List.of(new SortKey(sortON, true)); // default
                 if (parts.length == 2) {
-                    String sort = parts[1];
-                    if (sort.contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString())) {
-                        ascending = true;
-                        sort = sort.substring(0,
-                                sort.indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString()));
-                    } else if (sort
-                            .contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString())) {
-                        ascending = false;
-                        sort = sort.substring(0, sort
-                                .indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString()));
-                    }
                     try {
-                        sortON = GameData.fromString(sort);
+                        sortOn = SortKey.parse(parts[1]);
                     } catch (IllegalArgumentException e) {
                         printOutput("%s%n", ConsoleText.INVALID);
                         return; // leave early.
                     }
+                    sortON = sortOn.get(0).getColumn();
                 }
 
-                result = planner.filter(parts[0], sortON, ascending);  // NOTICE: sortON and ascending are used here.
+                result = planner.filter(parts[0], sortOn);  // NOTICE: sortOn is used here.
             } else {
                 result = planner.filter(filter); // default sort
             }
@@ -187,11 +176,13 @@ public class ConsoleApp {
      *               type.
      */
     private static void printFilterStream(Stream<BoardGame> games, GameData sortON) {
-        int counter = 1;
-        List<BoardGame> gameList = games != null ? games.toList() : Collections.emptyList();
-        for (BoardGame game : gameList) {
-            printOutput("%d: %s%n", counter++, game.toStringWithInfo(sortON));
+        if (games == null) {
+            return;
         }
+        // print while streaming, so a broad filter never holds every match at once
+        int[] counter = {1};
+        games.forEachOrdered(game ->
+                printOutput("%d: %s%n", counter[0]++, game.toStringWithInfo(sortON)));
     }
 
     /**
@@ -0,0 +1,143 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles text filters such as {@code "minPlayers > 2, rating >= 7"} into
+ * {@link CompiledFilter} objects.
+ * <p>
+ * Compiled filters are kept in a bounded {@link SampledCache}, keyed by the normalized filter
+ * text, so the same filter is only parsed once no matter how often it is used. Lookups do not
+ * lock, so sessions on many threads can compile filters at the same time.
+ */
+public final class FilterCompiler {
+    /**
+     * Maximum number of compiled filters kept in the cache.
+     */
+    private static final int CACHE_CAPACITY = 256;
+
+    /**
+     * Compiled filters by normalized filter text, rarely used ones dropped first.
+     */
+    private static final SampledCache<String, CompiledFilter> CACHE =
+            new SampledCache<>(CACHE_CAPACITY);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private FilterCompiler() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Compiles a filter, reusing the cached result if the same filter was compiled before.
+     *
+     * @param filter the filter text, conditions separated by commas
+     * @return the compiled filter
+     */
+    public static CompiledFilter compile(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return CompiledFilter.ALL;
+        }
+        String key = normalize(filter);
+        CompiledFilter cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return CACHE.put(key, parse(key));
+    }
+
+    /**
+     * Get the number of filters currently cached.
+     *
+     * @return the cache size
+     */
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    /**
+     * Normalizes filter text so that filters that only differ in case or in spacing around
+     * operators and commas share one cache entry. Whitespace inside a value, such as the spaces
+     * of a name literal, is kept as it is.
+     *
+     * @param filter the filter text
+     * @return the normalized text
+     */
+    static String normalize(String filter) {
+        String lower = filter.toLowerCase();
+        StringBuilder sb = new StringBuilder(lower.length());
+        int pendingFrom = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (pendingFrom < 0) {
+                    pendingFrom = i;
+                }
+                continue;
+            }
+            if (pendingFrom >= 0 && sb.length() > 0 && !isSeparator(c)
+                    && !isSeparator(sb.charAt(sb.length() - 1))) {
+                sb.append(lower, pendingFrom, i);
+            }
+            pendingFrom = -1;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks if a character is part of an operator or separates conditions.
+     *
+     * @param c the character
+     * @return true for operator characters and commas
+     */
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == '=' || c == '!' || c == '<' || c == '>' || c == '~';
+    }
+
+    /**
+     * Parses normalized filter text into its conditions.
+     *
+     * @param filter the normalized filter text
+     * @return the compiled filter
+     */
+    private static CompiledFilter parse(String filter) {
+        List<FilterCondition> conditions = new ArrayList<>();
+        for (String condition : filter.split(",")) {
+            FilterCondition parsed = parseCondition(condition);
+            if (parsed != null) {
+                conditions.add(parsed);
+            }
+        }
+        return new CompiledFilter(conditions);
+    }
+
+    /**
+     * Parses a single condition.
+     *
+     * @param condition the condition text, such as "rating>=7"
+     * @return the condition, or null if it is not valid
+     */
+    private static FilterCondition parseCondition(String condition) {
+        Operations operator = Operations.getOperatorFromStr(condition);
+        if (operator == null) {
+            return null;
+        }
+
+        String[] parts = condition.split(operator.getOperator());
+        if (parts.length != 2) {
+            return null;
+        }
+
+        GameData column;
+        try {
+            column = GameData.fromString(parts[0].trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        return FilterCondition.of(column, operator, parts[1].trim());
+    }
+}
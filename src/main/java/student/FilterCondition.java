@@ -0,0 +1,283 @@
+package student;
+
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A single, already parsed filter condition such as {@code rating>=7}.
+ * <p>
+ * The column and operator are resolved and the literal is parsed once, when the condition is
+ * built, so checking a game never touches the original filter text again. Instances are
+ * immutable and can be shared between threads.
+ */
+public final class FilterCondition {
+    /**
+     * Column the condition checks.
+     */
+    private final GameData column;
+    /**
+     * Comparison operator.
+     */
+    private final Operations operator;
+    /**
+     * Parsed numeric literal, used for every column except NAME.
+     */
+    private final double number;
+    /**
+     * Lower case literal, used for the NAME column.
+     */
+    private final String text;
+    /**
+     * Predicate over BoardGame objects, built once with the operator already resolved.
+     */
+    private final Predicate<BoardGame> gamePredicate;
+
+    /**
+     * Constructs a condition. Use {@link #of(GameData, Operations, String)} to parse the literal.
+     *
+     * @param column   column to check
+     * @param operator comparison operator
+     * @param number   numeric literal
+     * @param text     lower case text literal
+     */
+    private FilterCondition(GameData column, Operations operator, double number, String text) {
+        this.column = column;
+        this.operator = operator;
+        this.number = number;
+        this.text = text;
+        this.gamePredicate = createGamePredicate();
+    }
+
+    /**
+     * Builds a condition from its parts, parsing the literal for the column type.
+     *
+     * @param column   column to check
+     * @param operator comparison operator
+     * @param value    literal as written in the filter
+     * @return the condition, or null if the column cannot be filtered with the operator or the
+     *         literal does not parse
+     */
+    public static FilterCondition of(GameData column, Operations operator, String value) {
+        if (column == GameData.ID) {
+            return null;
+        }
+        if (column == GameData.NAME) {
+            if (operator != Operations.EQUALS && operator != Operations.NOT_EQUALS
+                    && operator != Operations.CONTAINS) {
+                return null;
+            }
+            return new FilterCondition(column, operator, 0, value.toLowerCase());
+        }
+        if (operator == Operations.CONTAINS) {
+            return null;
+        }
+        try {
+            double number = GameCatalog.isDoubleColumn(column) ? Double.parseDouble(value)
+                    : Integer.parseInt(value);
+            return new FilterCondition(column, operator, number, null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the column the condition checks.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the comparison operator.
+     *
+     * @return the operator
+     */
+    public Operations getOperator() {
+        return operator;
+    }
+
+    /**
+     * Get the numeric literal. Int columns hold whole numbers.
+     *
+     * @return the parsed literal
+     */
+    public double getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the lower case literal of a NAME condition.
+     *
+     * @return the literal, or null for numeric columns
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Builds the same condition with a different operator.
+     *
+     * @param newOperator the operator to use
+     * @return the new condition
+     */
+    FilterCondition withOperator(Operations newOperator) {
+        return new FilterCondition(column, newOperator, number, text);
+    }
+
+    /**
+     * Checks a board game against the condition.
+     *
+     * @param game the game to check
+     * @return true if the game matches
+     */
+    public boolean test(BoardGame game) {
+        return gamePredicate.test(game);
+    }
+
+    /**
+     * Get the condition as a predicate over board games.
+     *
+     * @return the predicate
+     */
+    public Predicate<BoardGame> asPredicate() {
+        return gamePredicate;
+    }
+
+    /**
+     * Binds the condition to the columns of a catalog.
+     *
+     * @param catalog the catalog to check rows of
+     * @return a predicate over the catalog's rows
+     */
+    public IntPredicate bind(GameCatalog catalog) {
+        if (column == GameData.NAME) {
+            if (operator == Operations.CONTAINS) {
+                return row -> catalog.lowerName(row).contains(text);
+            }
+            return row -> compareString(catalog.name(row));
+        }
+        if (GameCatalog.isDoubleColumn(column)) {
+            double[] values = catalog.doubleColumn(column);
+            double value = number;
+            switch (operator) {
+                case GREATER_THAN:
+                    return row -> values[row] > value;
+                case LESS_THAN:
+                    return row -> values[row] < value;
+                case GREATER_THAN_EQUALS:
+                    return row -> values[row] >= value;
+                case LESS_THAN_EQUALS:
+                    return row -> values[row] <= value;
+                case EQUALS:
+                    return row -> values[row] == value;
+                default:
+                    return row -> values[row] != value;
+            }
+        }
+        int[] values = catalog.intColumn(column);
+        int value = (int) number;
+        switch (operator) {
+            case GREATER_THAN:
+                return row -> values[row] > value;
+            case LESS_THAN:
+                return row -> values[row] < value;
+            case GREATER_THAN_EQUALS:
+                return row -> values[row] >= value;
+            case LESS_THAN_EQUALS:
+                return row -> values[row] <= value;
+            case EQUALS:
+                return row -> values[row] == value;
+            default:
+                return row -> values[row] != value;
+        }
+    }
+
+    /**
+     * Creates the predicate over board games for the column and operator.
+     *
+     * @return a predicate that evaluates whether a board game meets the condition
+     */
+    private Predicate<BoardGame> createGamePredicate() {
+        switch (column) {
+            case NAME:
+                return game -> compareString(game.getName());
+            case RATING:
+                return game -> compare(game.getRating());
+            case DIFFICULTY:
+                return game -> compare(game.getDifficulty());
+            case MIN_PLAYERS:
+                return game -> compare(game.getMinPlayers());
+            case MAX_PLAYERS:
+                return game -> compare(game.getMaxPlayers());
+            case MIN_TIME:
+                return game -> compare(game.getMinPlayTime());
+            case MAX_TIME:
+                return game -> compare(game.getMaxPlayTime());
+            case RANK:
+                return game -> compare(game.getRank());
+            case YEAR:
+                return game -> compare(game.getYearPublished());
+            default:
+                return game -> false;
+        }
+    }
+
+    /**
+     * Compares a numeric value with the literal. Int values convert to double without loss.
+     *
+     * @param gameValue the board game's attribute value
+     * @return true if the comparison holds
+     */
+    private boolean compare(double gameValue) {
+        switch (operator) {
+            case GREATER_THAN:
+                return gameValue > number;
+            case LESS_THAN:
+                return gameValue < number;
+            case GREATER_THAN_EQUALS:
+                return gameValue >= number;
+            case LESS_THAN_EQUALS:
+                return gameValue <= number;
+            case EQUALS:
+                return gameValue == number;
+            case NOT_EQUALS:
+                return gameValue != number;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compares a name with the literal, ignoring case.
+     *
+     * @param gameValue the board game's name
+     * @return true if the comparison holds
+     */
+    private boolean compareString(String gameValue) {
+        switch (operator) {
+            case EQUALS:
+                return gameValue.equalsIgnoreCase(text);
+            case NOT_EQUALS:
+                return !gameValue.equalsIgnoreCase(text);
+            case CONTAINS:
+                return gameValue.toLowerCase().contains(text);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Get the condition in its normalized text form, such as {@code rating>=7.0}.
+     *
+     * @return the normalized condition
+     */
+    @Override
+    public String toString() {
+        String value = column == GameData.NAME ? text
+                : GameCatalog.isDoubleColumn(column) ? Double.toString(number)
+                : Integer.toString((int) number);
+        return column.getColumnName() + operator.getOperator() + value;
+    }
+}
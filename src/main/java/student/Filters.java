@@ -1,11 +1,13 @@
 package student;
 
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
  * The Filters class provides methods to filter board games based on user-specified criteria.
  * It applies filtering strategies dynamically based on provided conditions.
+ * <p>
+ * Filter strings are compiled through {@link FilterCompiler}, so repeated filters are only
+ * parsed once.
  */
 public final class Filters {
 
@@ -23,151 +25,49 @@ public final class Filters {
      * @return A filtered stream of board games that match the given condition.
      */
     public static Stream<BoardGame> applyFilter(String filter, Stream<BoardGame> games) {
-        if (filter == null || filter.isEmpty()) {
-            return games;
-        }
-
-        String[] conditions = filter.split(",");
-        for (String condition : conditions) {
-            condition = condition.trim();
-            Predicate<BoardGame> predicate = createPredicate(condition);
-            if (predicate != null) {
-                games = games.filter(predicate);
-            }
-        }
-
-        return games;
-    }
-
-    /**
-     * Creates a predicate for filtering board games based on a given condition.
-     *
-     * @param condition The filtering condition as a string.
-     * @return A predicate that evaluates whether a board game meets the condition.
-     */
-    private static Predicate<BoardGame> createPredicate(String condition) {
-        Operations operator = Operations.getOperatorFromStr(condition);
-        if (operator == null) {
-            return null;
-        }
-
-        String[] parts = condition.split(operator.getOperator());
-        if (parts.length != 2) {
-            return null;
-        }
-
-        String attribute = parts[0].trim();
-        String value = parts[1].trim();
-
-        GameData column;
-        try {
-            column = GameData.fromString(attribute);
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
-
-        return createGamePredicate(column, operator, value);
-    }
-
-    /**
-     * Creates a predicate for filtering board games based on a specific attribute, operator, and value.
-     *
-     * @param column The attribute to filter on.
-     * @param operator The comparison operator.
-     * @param value The value to compare against.
-     * @return A predicate for filtering board games.
-     */
-    private static Predicate<BoardGame> createGamePredicate(GameData column, Operations operator, String value) {
-        switch (column) {
-            case MIN_PLAYERS:
-                return game -> compare(game.getMinPlayers(), Integer.parseInt(value), operator);
-            case MAX_PLAYERS:
-                return game -> compare(game.getMaxPlayers(), Integer.parseInt(value), operator);
-            case RATING:
-                return game -> compare(game.getRating(), Double.parseDouble(value), operator);
-            case DIFFICULTY:
-                return game -> compare(game.getDifficulty(), Double.parseDouble(value), operator);
-            case YEAR:
-                return game -> compare(game.getYearPublished(), Integer.parseInt(value), operator);
-            case NAME:
-                return game -> compareString(game.getName(), value, operator);
-            default:
-                return null;
-        }
+        return applyFilter(FilterCompiler.compile(filter), games);
     }
 
     /**
-     * Compares integer values based on the given operator.
+     * Applies an already compiled filter to a stream of board games.
      *
-     * @param gameValue The board game's attribute value.
-     * @param filterValue The filter value to compare against.
-     * @param operator The comparison operator.
-     * @return True if the comparison is valid, false otherwise.
+     * @param filter The compiled filter.
+     * @param games The stream of board games to filter.
+     * @return A filtered stream of board games that match the filter.
      */
-    private static boolean compare(int gameValue, int filterValue, Operations operator) {
-        switch (operator) {
-            case GREATER_THAN:
-                return gameValue > filterValue;
-            case LESS_THAN:
-                return gameValue < filterValue;
-            case GREATER_THAN_EQUALS:
-                return gameValue >= filterValue;
-            case LESS_THAN_EQUALS:
-                return gameValue <= filterValue;
-            case EQUALS:
-                return gameValue == filterValue;
-            case NOT_EQUALS:
-                return gameValue != filterValue;
-            default:
-                return false;
+    public static Stream<BoardGame> applyFilter(CompiledFilter filter, Stream<BoardGame> games) {
+        for (FilterCondition condition : filter.getConditions()) {
+            games = games.filter(condition.asPredicate());
         }
+        return games;
     }
 
     /**
-     * Compares double values based on the given operator.
+     * Applies a filter to the rows of a game catalog.
+     * <p>
+     * Works the same as {@link #applyFilter(String, Stream)}, but the conditions are checked
+     * against the catalog's column arrays, so no BoardGame objects are built while filtering.
      *
-     * @param gameValue The board game's attribute value.
-     * @param filterValue The filter value to compare against.
-     * @param operator The comparison operator.
-     * @return True if the comparison is valid, false otherwise.
+     * @param filter The filter condition as a string (e.g., "rating >= 7").
+     * @param catalog The catalog to filter.
+     * @return The rows that match the filter, in ascending row order.
      */
-    private static boolean compare(double gameValue, double filterValue, Operations operator) {
-        switch (operator) {
-            case GREATER_THAN:
-                return gameValue > filterValue;
-            case LESS_THAN:
-                return gameValue < filterValue;
-            case GREATER_THAN_EQUALS:
-                return gameValue >= filterValue;
-            case LESS_THAN_EQUALS:
-                return gameValue <= filterValue;
-            case EQUALS:
-                return gameValue == filterValue;
-            case NOT_EQUALS:
-                return gameValue != filterValue;
-            default:
-                return false;
-        }
+    public static int[] filterRows(String filter, GameCatalog catalog) {
+        return filterRows(FilterCompiler.compile(filter), catalog);
     }
 
     /**
-     * Compares string values based on the given operator.
+     * Applies an already compiled filter to the rows of a game catalog.
+     * <p>
+     * Each condition is turned into a {@link RowBitmap} of the rows it matches, taken from the
+     * {@link GameIndex} for range conditions and cached per catalog, and the bitmaps are then
+     * intersected. != conditions are removed from the result with an AND NOT.
      *
-     * @param gameValue The board game's attribute value.
-     * @param filterValue The filter value to compare against.
-     * @param operator The comparison operator.
-     * @return True if the comparison is valid, false otherwise.
+     * @param filter The compiled filter.
+     * @param catalog The catalog to filter.
+     * @return The rows that match the filter, in ascending row order.
      */
-    private static boolean compareString(String gameValue, String filterValue, Operations operator) {
-        switch (operator) {
-            case EQUALS:
-                return gameValue.equalsIgnoreCase(filterValue);
-            case NOT_EQUALS:
-                return !gameValue.equalsIgnoreCase(filterValue);
-            case CONTAINS:
-                return gameValue.toLowerCase().contains(filterValue.toLowerCase());
-            default:
-                return false;
-        }
+    public static int[] filterRows(CompiledFilter filter, GameCatalog catalog) {
+        return catalog.bitmaps().evaluate(filter).toArray();
     }
 }
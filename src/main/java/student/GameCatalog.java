@@ -0,0 +1,410 @@
+package student;
+
+import java.util.Collection;
+
+/**
+ * Columnar, read-only store of the board game collection.
+ * <p>
+ * Instead of holding one BoardGame object per game, every GameData column is kept in its own
+ * primitive array, and a game is identified by its row number. Filters can then run straight
+ * over the arrays, and BoardGame objects are only built for the rows a caller actually asks for.
+ */
+public final class GameCatalog {
+    /**
+     * Number of rows (games) in the catalog.
+     */
+    private final int size;
+    /**
+     * Name dictionary, row to game name.
+     */
+    private final String[] names;
+    /**
+     * Unique identifiers of the games.
+     */
+    private final int[] ids;
+    /**
+     * Minimum number of players.
+     */
+    private final int[] minPlayers;
+    /**
+     * Maximum number of players.
+     */
+    private final int[] maxPlayers;
+    /**
+     * Minimum play time in minutes.
+     */
+    private final int[] minPlayTime;
+    /**
+     * Maximum play time in minutes.
+     */
+    private final int[] maxPlayTime;
+    /**
+     * Average difficulty of the games.
+     */
+    private final double[] difficulty;
+    /**
+     * Rank of the games.
+     */
+    private final int[] rank;
+    /**
+     * Average rating of the games.
+     */
+    private final double[] rating;
+    /**
+     * Year the games were published.
+     */
+    private final int[] yearPublished;
+    /**
+     * Held while building an index on first use.
+     */
+    private final Object indexLock = new Object();
+    /**
+     * Sorted indexes over the numeric columns, null until first used.
+     */
+    private volatile GameIndex index;
+    /**
+     * Lower case names and their trigram index, null until first used.
+     */
+    private volatile NameIndex nameIndex;
+    /**
+     * Case folded name trie, null until first used.
+     */
+    private volatile NameTrie nameTrie;
+    /**
+     * Open addressing table from game id to row: each slot holds a row plus one, 0 when empty.
+     * Null until first used.
+     */
+    private volatile int[] rowSlots;
+    /**
+     * Cached row bitmaps of filter conditions.
+     */
+    private final ConditionBitmaps bitmaps;
+
+    /**
+     * Constructs a catalog from already filled column arrays. All arrays must have at least size
+     * entries, and are owned by the catalog afterwards. The indexes over the columns are built
+     * when a query first needs them, so loading a catalog only costs reading its columns.
+     *
+     * @param size          number of rows
+     * @param names         game names
+     * @param ids           unique identifiers
+     * @param minPlayers    minimum number of players
+     * @param maxPlayers    maximum number of players
+     * @param minPlayTime   minimum play time in minutes
+     * @param maxPlayTime   maximum play time in minutes
+     * @param difficulty    average difficulty
+     * @param rank          rank
+     * @param rating        average rating
+     * @param yearPublished year published
+     */
+    GameCatalog(int size, String[] names, int[] ids, int[] minPlayers, int[] maxPlayers,
+                int[] minPlayTime, int[] maxPlayTime, double[] difficulty, int[] rank,
+                double[] rating, int[] yearPublished) {
+        this.size = size;
+        this.names = names;
+        this.ids = ids;
+        this.minPlayers = minPlayers;
+        this.maxPlayers = maxPlayers;
+        this.minPlayTime = minPlayTime;
+        this.maxPlayTime = maxPlayTime;
+        this.difficulty = difficulty;
+        this.rank = rank;
+        this.rating = rating;
+        this.yearPublished = yearPublished;
+        this.bitmaps = new ConditionBitmaps(this);
+    }
+
+    /**
+     * Builds a catalog from a collection of board games. Rows follow the iteration order of the
+     * collection.
+     *
+     * @param games the games to store
+     * @return a new catalog holding the games
+     */
+    public static GameCatalog of(Collection<BoardGame> games) {
+        int n = games.size();
+        String[] names = new String[n];
+        int[] ids = new int[n];
+        int[] minPlayers = new int[n];
+        int[] maxPlayers = new int[n];
+        int[] minPlayTime = new int[n];
+        int[] maxPlayTime = new int[n];
+        double[] difficulty = new double[n];
+        int[] rank = new int[n];
+        double[] rating = new double[n];
+        int[] yearPublished = new int[n];
+
+        int row = 0;
+        for (BoardGame game : games) {
+            names[row] = game.getName();
+            ids[row] = game.getId();
+            minPlayers[row] = game.getMinPlayers();
+            maxPlayers[row] = game.getMaxPlayers();
+            minPlayTime[row] = game.getMinPlayTime();
+            maxPlayTime[row] = game.getMaxPlayTime();
+            difficulty[row] = game.getDifficulty();
+            rank[row] = game.getRank();
+            rating[row] = game.getRating();
+            yearPublished[row] = game.getYearPublished();
+            row++;
+        }
+        return new GameCatalog(n, names, ids, minPlayers, maxPlayers, minPlayTime, maxPlayTime,
+                difficulty, rank, rating, yearPublished);
+    }
+
+    /**
+     * Get the number of games in the catalog.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the name of the game at a row.
+     *
+     * @param row the row
+     * @return name of the game
+     */
+    public String name(int row) {
+        return names[row];
+    }
+
+    /**
+     * Get the lower case name of the game at a row, computed once with the name index.
+     *
+     * @param row the row
+     * @return name of the game in lower case
+     */
+    public String lowerName(int row) {
+        return nameIndex().lowerName(row);
+    }
+
+    /**
+     * Get the unique identifier of the game at a row.
+     *
+     * @param row the row
+     * @return unique identifier
+     */
+    public int id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Finds the row of a game id, in constant time.
+     *
+     * @param id the game id
+     * @return the first row with that id, or -1 if there is none
+     */
+    public int rowOfId(int id) {
+        int[] rowSlots = rowSlots();
+        int mask = rowSlots.length - 1;
+        for (int slot = hashId(id) & mask; rowSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = rowSlots[slot] - 1;
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the rows of the games with a name, ignoring case, in time proportional to the length
+     * of the name.
+     *
+     * @param name the name
+     * @return the matching rows, ascending
+     */
+    public int[] rowsNamed(String name) {
+        return nameTrie().exact(name);
+    }
+
+    /**
+     * Get the id to row table, building it on first use.
+     *
+     * @return the slots
+     */
+    private int[] rowSlots() {
+        int[] slots = rowSlots;
+        if (slots == null) {
+            synchronized (indexLock) {
+                slots = rowSlots;
+                if (slots == null) {
+                    slots = buildRowSlots();
+                    rowSlots = slots;
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Builds the id to row table, at most half full.
+     *
+     * @return the slots
+     */
+    private int[] buildRowSlots() {
+        int[] slots = new int[Integer.highestOneBit(Math.max(1, size) * 2) * 2];
+        int mask = slots.length - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hashId(ids[row]) & mask;
+            while (slots[slot] != 0 && ids[slots[slot] - 1] != ids[row]) {
+                slot = (slot + 1) & mask;
+            }
+            // duplicate ids keep their first row
+            if (slots[slot] == 0) {
+                slots[slot] = row + 1;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Spreads the bits of a game id, since ids are often consecutive.
+     *
+     * @param id the id
+     * @return the hash
+     */
+    static int hashId(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Get the sorted indexes over the catalog's numeric columns, building them on first use.
+     *
+     * @return the index
+     */
+    public GameIndex index() {
+        GameIndex built = index;
+        if (built == null) {
+            synchronized (indexLock) {
+                built = index;
+                if (built == null) {
+                    built = new GameIndex(this);
+                    index = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Get the trigram index over the game names, building it on first use.
+     *
+     * @return the name index
+     */
+    NameIndex nameIndex() {
+        NameIndex built = nameIndex;
+        if (built == null) {
+            synchronized (indexLock) {
+                built = nameIndex;
+                if (built == null) {
+                    built = new NameIndex(this);
+                    nameIndex = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Get the case folded trie over the game names, building it on first use.
+     *
+     * @return the name trie
+     */
+    NameTrie nameTrie() {
+        NameTrie built = nameTrie;
+        if (built == null) {
+            synchronized (indexLock) {
+                built = nameTrie;
+                if (built == null) {
+                    // the trie walks the name order, so this may build the index first
+                    built = new NameTrie(this);
+                    nameTrie = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Get the row bitmaps of filter conditions, cached across queries.
+     *
+     * @return the condition bitmaps
+     */
+    ConditionBitmaps bitmaps() {
+        return bitmaps;
+    }
+
+    /**
+     * Checks if a column is stored as doubles rather than ints.
+     *
+     * @param col the column
+     * @return true for RATING and DIFFICULTY
+     */
+    public static boolean isDoubleColumn(GameData col) {
+        return col == GameData.RATING || col == GameData.DIFFICULTY;
+    }
+
+    /**
+     * Get the backing array of an int column. The array is shared, not copied, so callers must
+     * not modify it.
+     *
+     * @param col the column
+     * @return the column values, indexed by row
+     * @throws IllegalArgumentException if the column is not an int column
+     */
+    int[] intColumn(GameData col) {
+        switch (col) {
+            case ID:
+                return ids;
+            case MIN_PLAYERS:
+                return minPlayers;
+            case MAX_PLAYERS:
+                return maxPlayers;
+            case MIN_TIME:
+                return minPlayTime;
+            case MAX_TIME:
+                return maxPlayTime;
+            case RANK:
+                return rank;
+            case YEAR:
+                return yearPublished;
+            default:
+                throw new IllegalArgumentException("Not an int column: " + col);
+        }
+    }
+
+    /**
+     * Get the backing array of a double column. The array is shared, not copied, so callers must
+     * not modify it.
+     *
+     * @param col the column
+     * @return the column values, indexed by row
+     * @throws IllegalArgumentException if the column is not a double column
+     */
+    double[] doubleColumn(GameData col) {
+        switch (col) {
+            case RATING:
+                return rating;
+            case DIFFICULTY:
+                return difficulty;
+            default:
+                throw new IllegalArgumentException("Not a double column: " + col);
+        }
+    }
+
+    /**
+     * Builds the BoardGame object for a row.
+     *
+     * @param row the row
+     * @return a new BoardGame with the row's values
+     */
+    public BoardGame game(int row) {
+        return new BoardGame(names[row], ids[row], minPlayers[row], maxPlayers[row],
+                minPlayTime[row], maxPlayTime[row], difficulty[row], rank[row], rating[row],
+                yearPublished[row]);
+    }
+}
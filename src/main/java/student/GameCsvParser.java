@@ -0,0 +1,213 @@
+package student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Parses collection csv lines straight from bytes into a {@link CatalogBuilder}.
+ * <p>
+ * Only the columns named in the header map are looked at: the parser walks the line once to
+ * find their comma positions, stops after the last one it needs, and reads ints and doubles
+ * directly from the bytes. No String is created except for the game name.
+ * <p>
+ * Lines are read with absolute gets on a {@link ByteBuffer}, so the same parser works on heap
+ * buffers and on memory-mapped files. Keeps scratch state, so use one parser per thread.
+ */
+final class GameCsvParser {
+    /**
+     * Largest mantissa that converts to a double without rounding (2^53).
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /**
+     * Powers of ten that are exact as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+        1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * For each csv field index, the GameData ordinal stored there, or -1 if unused.
+     */
+    private final int[] fieldColumn;
+    /**
+     * Start of each GameData field in the current line.
+     */
+    private final int[] starts = new int[GameData.values().length];
+    /**
+     * End (exclusive) of each GameData field in the current line.
+     */
+    private final int[] ends = new int[GameData.values().length];
+    /**
+     * Scratch space for decoding names from buffers without a backing array.
+     */
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Constructs a parser for a header layout.
+     *
+     * @param columnMap the index of each GameData column in a line
+     * @throws IllegalArgumentException if a GameData column is missing from the header
+     */
+    GameCsvParser(Map<GameData, Integer> columnMap) {
+        int last = -1;
+        for (GameData col : GameData.values()) {
+            Integer index = columnMap.get(col);
+            if (index == null) {
+                throw new IllegalArgumentException("Missing column " + col.getColumnName());
+            }
+            last = Math.max(last, index);
+        }
+        fieldColumn = new int[last + 1];
+        Arrays.fill(fieldColumn, -1);
+        for (Map.Entry<GameData, Integer> entry : columnMap.entrySet()) {
+            fieldColumn[entry.getValue()] = entry.getKey().ordinal();
+        }
+    }
+
+    /**
+     * Parses one line and adds it to the builder. Lines with missing fields or values that do not
+     * parse are skipped.
+     *
+     * @param buf   the buffer holding the line
+     * @param start first byte of the line
+     * @param end   end of the line (exclusive), without the line break
+     * @param out   the builder to add the game to
+     * @return true if the line was added
+     */
+    boolean parseLine(ByteBuffer buf, int start, int end, CatalogBuilder out) {
+        int pos = start;
+        for (int field = 0; field < fieldColumn.length; field++) {
+            if (pos > end) {
+                return false;
+            }
+            int comma = pos;
+            while (comma < end && buf.get(comma) != ',') {
+                comma++;
+            }
+            int col = fieldColumn[field];
+            if (col >= 0) {
+                starts[col] = pos;
+                ends[col] = comma;
+            }
+            pos = comma + 1;
+        }
+
+        try {
+            out.add(name(buf, starts[GameData.NAME.ordinal()], ends[GameData.NAME.ordinal()]),
+                    parseInt(buf, GameData.ID),
+                    parseInt(buf, GameData.MIN_PLAYERS),
+                    parseInt(buf, GameData.MAX_PLAYERS),
+                    parseInt(buf, GameData.MIN_TIME),
+                    parseInt(buf, GameData.MAX_TIME),
+                    parseDouble(buf, GameData.DIFFICULTY),
+                    parseInt(buf, GameData.RANK),
+                    parseDouble(buf, GameData.RATING),
+                    parseInt(buf, GameData.YEAR));
+            return true;
+        } catch (NumberFormatException e) {
+            // skip if there is an issue
+            return false;
+        }
+    }
+
+    /**
+     * Decodes a name from UTF-8 bytes.
+     *
+     * @param buf   the buffer
+     * @param start first byte
+     * @param end   end (exclusive)
+     * @return the name
+     */
+    private String name(ByteBuffer buf, int start, int end) {
+        int length = end - start;
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + start, length,
+                    StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buf.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses an int field, with the same rules as Integer.parseInt.
+     *
+     * @param buf the buffer
+     * @param col the column
+     * @return the value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    private int parseInt(ByteBuffer buf, GameData col) {
+        int pos = starts[col.ordinal()];
+        int end = ends[col.ordinal()];
+        boolean negative = false;
+        if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+            negative = buf.get(pos) == '-';
+            pos++;
+        }
+        if (pos == end) {
+            throw new NumberFormatException("Empty int in column " + col.getColumnName());
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = buf.get(pos) - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException("Bad int in column " + col.getColumnName());
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Int out of range in column " + col.getColumnName());
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a double field. Plain decimals such as 6.60806 are converted from the digits
+     * directly, which gives exactly the same result as Double.parseDouble while the digits fit
+     * in 53 bits. Anything else falls back to Double.parseDouble.
+     *
+     * @param buf the buffer
+     * @param col the column
+     * @return the value
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    private double parseDouble(ByteBuffer buf, GameData col) {
+        int start = starts[col.ordinal()];
+        int end = ends[col.ordinal()];
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+            negative = buf.get(pos) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; pos < end; pos++) {
+            byte b = buf.get(pos);
+            if (b == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || mantissa >= MAX_EXACT_MANTISSA) {
+                return Double.parseDouble(name(buf, start, end));
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+            if (fraction >= 0) {
+                fraction++;
+            }
+        }
+        if (digits == 0 || mantissa > MAX_EXACT_MANTISSA || fraction >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(name(buf, start, end));
+        }
+        double value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,208 @@
+package student;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of board game ids, each with an int value, for {@link GameList}: the row of the game in
+ * its catalog, or the position of the game in the list's own array.
+ * <p>
+ * Ids are kept in an open addressing table with linear probing, hashed with
+ * {@link GameCatalog#hashId}, and every slot holds the value of its id next to it, so adding,
+ * finding and removing a game neither boxes the id nor keeps a {@link BoardGame} alive. Values
+ * are never negative, and a slot is used when its value is. Removal shifts the following slots of
+ * the probe run back, so the table needs no tombstones.
+ */
+final class GameIdSet {
+    /**
+     * Initial number of slots, a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Value of a free slot.
+     */
+    private static final int FREE = -1;
+
+    /**
+     * Id of each used slot.
+     */
+    private int[] ids;
+    /**
+     * Value of each slot, {@link #FREE} when the slot is free.
+     */
+    private int[] values;
+    /**
+     * Number of ids in the set.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty set.
+     */
+    GameIdSet() {
+        ids = new int[INITIAL_CAPACITY];
+        values = newValues(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds an id with its value, unless the id is already in the set.
+     *
+     * @param id    the id
+     * @param value the value, not negative
+     * @return true if the id was added
+     * @throws IllegalArgumentException if the value is negative
+     */
+    boolean add(int id, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid value: " + value);
+        }
+        int mask = ids.length - 1;
+        int slot = GameCatalog.hashId(id) & mask;
+        while (values[slot] != FREE) {
+            if (ids[slot] == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        values[slot] = value;
+        if (++size * 2 > ids.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Checks if an id is in the set.
+     *
+     * @param id the id
+     * @return true if it is
+     */
+    boolean contains(int id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Replaces the value of an id that is in the set.
+     *
+     * @param id    the id
+     * @param value the new value, not negative
+     * @throws IllegalArgumentException if the id is not in the set or the value is negative
+     */
+    void set(int id, int value) {
+        int slot = find(id);
+        if (slot < 0 || value < 0) {
+            throw new IllegalArgumentException("Cannot set " + id + " to " + value);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes an id.
+     *
+     * @param id the id
+     * @return the value of the id, or -1 if it was not in the set
+     */
+    int remove(int id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return FREE;
+        }
+        int value = values[slot];
+        int mask = ids.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; values[next] != FREE; next = (next + 1) & mask) {
+            // move back every id whose home slot is not between the freed slot and its own
+            int home = GameCatalog.hashId(ids[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                ids[free] = ids[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        values[free] = FREE;
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes every id, keeping the table.
+     */
+    void clear() {
+        Arrays.fill(values, FREE);
+        size = 0;
+    }
+
+    /**
+     * Get the number of ids.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Passes the value of every id to an action, in no particular order.
+     *
+     * @param action the action
+     */
+    void forEach(IntConsumer action) {
+        for (int value : values) {
+            if (value != FREE) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of an id.
+     *
+     * @param id the id
+     * @return the slot, or -1 if the id is not in the set
+     */
+    private int find(int id) {
+        int mask = ids.length - 1;
+        int slot = GameCatalog.hashId(id) & mask;
+        while (values[slot] != FREE) {
+            if (ids[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Doubles the table.
+     */
+    private void grow() {
+        int[] oldIds = ids;
+        int[] oldValues = values;
+        ids = new int[oldIds.length * 2];
+        values = newValues(oldIds.length * 2);
+        int mask = ids.length - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldValues[i] != FREE) {
+                int slot = GameCatalog.hashId(oldIds[i]) & mask;
+                while (values[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                ids[slot] = oldIds[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates a table of free slots.
+     *
+     * @param length the number of slots
+     * @return the values
+     */
+    private static int[] newValues(int length) {
+        int[] values = new int[length];
+        Arrays.fill(values, FREE);
+        return values;
+    }
+}
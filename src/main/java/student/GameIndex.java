@@ -0,0 +1,490 @@
+package student;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Sorted secondary indexes over the numeric columns of a {@link GameCatalog}.
+ * <p>
+ * For every indexed column the index keeps the rows ordered by value (ties by row), next to the
+ * values in that same order. A range condition such as {@code rating>=7} then becomes two
+ * binary searches, giving a slice of rows instead of a scan over the whole catalog.
+ * <p>
+ * The same row orders, plus one for NAME sorted by precomputed collation ranks (see
+ * {@link NameKeys}), double as presorted permutations: a sorted query
+ * walks the permutation for its column and direction and keeps the rows that pass its filter,
+ * without comparing any values.
+ */
+public final class GameIndex {
+    /**
+     * Columns that get an index.
+     */
+    public static final GameData[] INDEXED_COLUMNS = {GameData.RATING, GameData.DIFFICULTY,
+        GameData.YEAR, GameData.MIN_PLAYERS, GameData.MAX_PLAYERS, GameData.MIN_TIME,
+        GameData.MAX_TIME, GameData.RANK};
+
+    /**
+     * Rows ordered by column value.
+     */
+    private final Map<GameData, int[]> orders = new EnumMap<>(GameData.class);
+    /**
+     * Rows ordered by descending column value, ties still by ascending row.
+     */
+    private final Map<GameData, int[]> descOrders = new EnumMap<>(GameData.class);
+    /**
+     * Values of int columns, in index order.
+     */
+    private final Map<GameData, int[]> sortedInts = new EnumMap<>(GameData.class);
+    /**
+     * Values of double columns, in index order.
+     */
+    private final Map<GameData, double[]> sortedDoubles = new EnumMap<>(GameData.class);
+    /**
+     * Dense rank of each row's name in case insensitive order, equal names sharing a rank.
+     */
+    private final int[] nameRanks;
+    /**
+     * Dense ranks of the rows of other sortable columns, computed when first asked for.
+     */
+    private final Map<GameData, int[]> ranks = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the indexes for every indexed column of a catalog.
+     *
+     * @param catalog the catalog to index
+     */
+    GameIndex(GameCatalog catalog) {
+        for (GameData col : INDEXED_COLUMNS) {
+            if (GameCatalog.isDoubleColumn(col)) {
+                double[] values = catalog.doubleColumn(col);
+                int[] order = sortRows(denseRanks(values, catalog.size()));
+                double[] sorted = new double[order.length];
+                for (int i = 0; i < order.length; i++) {
+                    sorted[i] = values[order[i]];
+                }
+                orders.put(col, order);
+                sortedDoubles.put(col, sorted);
+            } else {
+                int[] values = catalog.intColumn(col);
+                int[] order = sortRows(Arrays.copyOf(values, catalog.size()));
+                int[] sorted = new int[order.length];
+                for (int i = 0; i < order.length; i++) {
+                    sorted[i] = values[order[i]];
+                }
+                orders.put(col, order);
+                sortedInts.put(col, sorted);
+            }
+        }
+        String[] names = new String[catalog.size()];
+        for (int row = 0; row < names.length; row++) {
+            names[row] = catalog.name(row);
+        }
+        nameRanks = NameKeys.ranks(names, names.length);
+        orders.put(GameData.NAME, sortRows(nameRanks));
+
+        for (Map.Entry<GameData, int[]> entry : orders.entrySet()) {
+            GameData col = entry.getKey();
+            int[] order = entry.getValue();
+            IntPredicate sameAsPrevious;
+            if (col == GameData.NAME) {
+                sameAsPrevious = i -> nameRanks[order[i]] == nameRanks[order[i - 1]];
+            } else if (GameCatalog.isDoubleColumn(col)) {
+                double[] sorted = sortedDoubles.get(col);
+                sameAsPrevious = i -> Double.compare(sorted[i], sorted[i - 1]) == 0;
+            } else {
+                int[] sorted = sortedInts.get(col);
+                sameAsPrevious = i -> sorted[i] == sorted[i - 1];
+            }
+            descOrders.put(col, descending(order, sameAsPrevious));
+        }
+    }
+
+    /**
+     * Get the dense rank of every row's name in case insensitive order, so names sort by
+     * comparing ints. The array is shared, so callers must not modify it.
+     *
+     * @return the name rank of each row
+     */
+    int[] nameRanks() {
+        return nameRanks;
+    }
+
+    /**
+     * Get the dense rank of every row's value in a sortable column: 0 for the smallest value, and
+     * equal values sharing a rank. Ranks of numeric columns are computed from the column's
+     * permutation when first asked for. The array is shared, so callers must not modify it.
+     *
+     * @param col a sortable column
+     * @return the rank of each row
+     * @throws IllegalArgumentException if the column cannot be sorted on
+     */
+    int[] ranks(GameData col) {
+        if (col == GameData.NAME) {
+            return nameRanks;
+        }
+        if (!isIndexed(col)) {
+            throw new IllegalArgumentException("Sorting by this attribute is not supported.");
+        }
+        return ranks.computeIfAbsent(col, this::computeRanks);
+    }
+
+    /**
+     * Get the number of distinct values of a sortable column, one more than its highest rank.
+     *
+     * @param col a sortable column
+     * @return the number of distinct values
+     */
+    int distinctValues(GameData col) {
+        int[] order = orders.get(col);
+        return order.length == 0 ? 0 : ranks(col)[order[order.length - 1]] + 1;
+    }
+
+    /**
+     * Computes the dense ranks of a numeric column by walking its permutation.
+     *
+     * @param col an indexed column
+     * @return the rank of each row
+     */
+    private int[] computeRanks(GameData col) {
+        int[] order = orders.get(col);
+        IntPredicate sameAsPrevious;
+        if (GameCatalog.isDoubleColumn(col)) {
+            double[] sorted = sortedDoubles.get(col);
+            sameAsPrevious = i -> Double.compare(sorted[i], sorted[i - 1]) == 0;
+        } else {
+            int[] sorted = sortedInts.get(col);
+            sameAsPrevious = i -> sorted[i] == sorted[i - 1];
+        }
+        int[] result = new int[order.length];
+        int rank = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0 && !sameAsPrevious.test(i)) {
+                rank++;
+            }
+            result[order[i]] = rank;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a column has a range index.
+     *
+     * @param col the column
+     * @return true if the column has an index
+     */
+    public boolean isIndexed(GameData col) {
+        return sortedInts.containsKey(col) || sortedDoubles.containsKey(col);
+    }
+
+    /**
+     * Checks if a column has a presorted permutation.
+     *
+     * @param col the column
+     * @return true if rows can be listed in the column's order
+     */
+    public boolean isSortable(GameData col) {
+        return orders.containsKey(col);
+    }
+
+    /**
+     * Get the rows of a column in sorted order, ties broken by ascending row in both directions.
+     * The array is shared, so callers must not modify it.
+     *
+     * @param col       a sortable column
+     * @param ascending true for ascending values, false for descending
+     * @return the rows in sorted order
+     */
+    int[] order(GameData col, boolean ascending) {
+        return ascending ? orders.get(col) : descOrders.get(col);
+    }
+
+    /**
+     * Walks the permutation of a column and collects the first rows that are in a bitmap.
+     *
+     * @param rows      the rows to keep
+     * @param col       a sortable column
+     * @param ascending true for ascending values, false for descending
+     * @param limit     the maximum number of rows to collect
+     * @return the first matching rows in sorted order
+     */
+    int[] firstInOrder(RowBitmap rows, GameData col, boolean ascending, int limit) {
+        int[] order = order(col, ascending);
+        long[] words = rows.toWords(order.length);
+        int[] out = new int[Math.min(limit, rows.cardinality())];
+        int count = 0;
+        for (int i = 0; i < order.length && count < out.length; i++) {
+            int row = order[i];
+            if ((words[row >>> 6] & (1L << row)) != 0) {
+                out[count++] = row;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Finds the slice of the index order that matches a condition.
+     *
+     * @param condition the condition to resolve
+     * @return the matching range, or null if the condition cannot be answered by one range
+     *         (NAME and != conditions, or columns without an index). NaN values sort last and
+     *         match no comparison, so they are never part of a range.
+     */
+    public Range range(FilterCondition condition) {
+        GameData col = condition.getColumn();
+        if (!isIndexed(col) || condition.getOperator() == Operations.NOT_EQUALS
+                || condition.getOperator() == Operations.CONTAINS) {
+            return null;
+        }
+        int n = order(col, true).length;
+        int lower;
+        int upper;
+        if (GameCatalog.isDoubleColumn(col)) {
+            double[] sorted = sortedDoubles.get(col);
+            if (Double.isNaN(condition.getNumber())) {
+                return new Range(col, 0, 0);
+            }
+            n = firstNaN(sorted);
+            lower = lowerBound(sorted, condition.getNumber());
+            upper = upperBound(sorted, condition.getNumber());
+        } else {
+            int[] sorted = sortedInts.get(col);
+            lower = lowerBound(sorted, (int) condition.getNumber());
+            upper = upperBound(sorted, (int) condition.getNumber());
+        }
+        switch (condition.getOperator()) {
+            case GREATER_THAN:
+                return new Range(col, upper, n);
+            case GREATER_THAN_EQUALS:
+                return new Range(col, lower, n);
+            case LESS_THAN:
+                return new Range(col, 0, lower);
+            case LESS_THAN_EQUALS:
+                return new Range(col, 0, upper);
+            default:
+                return new Range(col, lower, upper);
+        }
+    }
+
+    /**
+     * Builds the descending permutation from the ascending one, keeping runs of equal values in
+     * ascending row order.
+     *
+     * @param asc            rows in ascending order
+     * @param sameAsPrevious tells if position i has the same value as position i - 1
+     * @return rows in descending order
+     */
+    private static int[] descending(int[] asc, IntPredicate sameAsPrevious) {
+        int[] desc = new int[asc.length];
+        int out = 0;
+        int end = asc.length;
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && sameAsPrevious.test(start)) {
+                start--;
+            }
+            System.arraycopy(asc, start, desc, out, end - start);
+            out += end - start;
+            end = start;
+        }
+        return desc;
+    }
+
+    /**
+     * Sorts rows by a key, ties broken by row.
+     *
+     * @param keys the key of each row
+     * @return the rows in key order
+     */
+    private static int[] sortRows(int[] keys) {
+        long[] packed = new long[keys.length];
+        for (int row = 0; row < keys.length; row++) {
+            packed[row] = ((long) keys[row] << 32) | row;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < packed.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Replaces every value by its position among the distinct values, so doubles can be sorted
+     * as packed longs.
+     *
+     * @param values the values
+     * @param size   number of values to rank
+     * @return the rank of each value
+     */
+    private static int[] denseRanks(double[] values, int size) {
+        double[] distinct = Arrays.copyOf(values, size);
+        Arrays.sort(distinct);
+        int count = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (count == 0 || Double.compare(distinct[count - 1], distinct[i]) != 0) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        int[] ranks = new int[size];
+        for (int row = 0; row < size; row++) {
+            ranks[row] = Arrays.binarySearch(distinct, 0, count, values[row]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Finds the first position whose value is not less than the key.
+     *
+     * @param sorted values in ascending order
+     * @param key    the key
+     * @return the position
+     */
+    private static int lowerBound(int[] sorted, int key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first NaN, which sort after every number.
+     *
+     * @param sorted values in ascending order, NaNs last
+     * @return the position of the first NaN, or the length if there is none
+     */
+    private static int firstNaN(double[] sorted) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Double.isNaN(sorted[mid])) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position whose value is greater than the key.
+     *
+     * @param sorted values in ascending order
+     * @param key    the key
+     * @return the position
+     */
+    private static int upperBound(int[] sorted, int key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position whose value is not less than the key.
+     *
+     * @param sorted values in ascending order
+     * @param key    the key
+     * @return the position
+     */
+    private static int lowerBound(double[] sorted, double key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position whose value is greater than the key.
+     *
+     * @param sorted values in ascending order
+     * @param key    the key
+     * @return the position
+     */
+    private static int upperBound(double[] sorted, double key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * A slice [from, to) of a column's index order.
+     */
+    public final class Range {
+        /**
+         * Column whose order the range refers to.
+         */
+        private final GameData column;
+        /**
+         * First position, inclusive.
+         */
+        private final int from;
+        /**
+         * Last position, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Constructs a range.
+         *
+         * @param column indexed column
+         * @param from   first position, inclusive
+         * @param to     last position, exclusive
+         */
+        private Range(GameData column, int from, int to) {
+            this.column = column;
+            this.from = from;
+            this.to = Math.max(from, to);
+        }
+
+        /**
+         * Get the number of rows in the range.
+         *
+         * @return the row count
+         */
+        public int size() {
+            return to - from;
+        }
+
+        /**
+         * Copies the rows in the range, in index order.
+         *
+         * @return the rows
+         */
+        public int[] rows() {
+            return Arrays.copyOfRange(orders.get(column), from, to);
+        }
+    }
+}
@@ -5,7 +5,6 @@ import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -17,33 +16,81 @@ import java.util.stream.Stream;
 public class GameList implements IGameList {
 
     /**
-     * Constructor for the GameList.
+     * Ids of the selected games, each with the game's row in the catalog, or without a catalog
+     * its position in {@link #games}.
      */
-    private Set<BoardGame> selectedGames;
+    private final GameIdSet selectedGames;
+    /**
+     * The selected games in no particular order when there is no catalog, otherwise null.
+     */
+    private final List<BoardGame> games;
+    /**
+     * Names of the selected games in case-insensitive order, or null until they are asked for
+     * again after a change.
+     */
+    private List<String> sortedNames;
+    /**
+     * Catalog the games come from, used to look names up, or null.
+     */
+    private final GameCatalog catalog;
 
     /**
      * Constructs a new GameList with an empty set of selected board games.
      */
     public GameList() {
-        this.selectedGames = new HashSet<>();
+        this(null);
+    }
+
+    /**
+     * Constructs a new, empty GameList for games of a catalog. The list then holds catalog rows
+     * instead of games, and names are looked up in the catalog's name index instead of being
+     * compared with every game.
+     *
+     * @param catalog the catalog the added games come from
+     */
+    public GameList(GameCatalog catalog) {
+        this.selectedGames = new GameIdSet();
+        this.games = catalog == null ? new ArrayList<>() : null;
+        this.catalog = catalog;
     }
 
     /**
-     * Retrieves the names of all selected games in a sorted order.
+     * Retrieves the names of all selected games in a sorted order. The names are sorted when first
+     * asked for, and kept until the list changes. With a catalog, rows are sorted by the name
+     * ranks of the catalog's index instead of comparing names.
      *
-     * @return A list of game names sorted in case-insensitive order.
+     * @return A read-only list of game names sorted in case-insensitive order.
      * @throws UnsupportedOperationException if the game list is empty.
      */
     @Override
     public List<String> getGameNames() {
-        // TODO Auto-generated method stub
-        if (selectedGames.isEmpty()) {
+        if (selectedGames.size() == 0) {
             throw new UnsupportedOperationException("No games in the list.");
         }
-        return selectedGames.stream()
-                .map(BoardGame::getName)
-                .sorted(String.CASE_INSENSITIVE_ORDER)
-                .collect(Collectors.toList());
+        if (sortedNames == null) {
+            String[] names = new String[selectedGames.size()];
+            if (catalog != null) {
+                int[] rows = new int[names.length];
+                int[] count = {0};
+                selectedGames.forEach(row -> rows[count[0]++] = row);
+                int[] nameRanks = catalog.index().nameRanks();
+                int[] ranks = new int[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    ranks[i] = nameRanks[rows[i]];
+                }
+                int[] order = NameKeys.order(ranks, true);
+                for (int i = 0; i < order.length; i++) {
+                    names[i] = catalog.name(rows[order[i]]);
+                }
+            } else {
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = games.get(i).getName();
+                }
+                Arrays.sort(names, String.CASE_INSENSITIVE_ORDER);
+            }
+            sortedNames = Collections.unmodifiableList(Arrays.asList(names));
+        }
+        return sortedNames;
     }
 
     /**
@@ -53,6 +100,10 @@ public class GameList implements IGameList {
     public void clear() {
         // TODO Auto-generated method stub
         selectedGames.clear();
+        if (games != null) {
+            games.clear();
+        }
+        sortedNames = null;
     }
 
     /**
@@ -76,9 +127,7 @@ public class GameList implements IGameList {
     public void saveGame(String filename) {
         // TODO Auto-generated method stub
         try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(filename)))) {
-            for (BoardGame game : selectedGames) {
-                writer.println(game.getName());
-            }
+            selectedGames.forEach(value -> writer.println(name(value)));
         } catch (IOException e) {
             throw new UnsupportedOperationException("Error saving game list.");
         }
@@ -86,6 +135,11 @@ public class GameList implements IGameList {
 
     /**
      * Adds a game to the list if it exists in the provided stream.
+     * <p>
+     * The stream is only read as far as needed: indexes and ranges skip to their position, and a
+     * name stops at its first match. With a catalog, a name is looked up in the catalog's name
+     * index, so names unknown to the catalog fail without reading the stream, and the stream is
+     * only searched for the ids of the catalog's games with that name.
      *
      * @param str      The name of the game to add.
      * @param filtered The stream of board games to search for the game.
@@ -93,11 +147,8 @@ public class GameList implements IGameList {
      */
     @Override
     public void addToList(String str, Stream<BoardGame> filtered) {
-        // Convert stream to list to avoid stream reuse issues
-        List<BoardGame> gameList = filtered.collect(Collectors.toList());
-
         if (str.equalsIgnoreCase("ALL")) {
-            selectedGames.addAll(gameList);
+            filtered.forEach(this::add);
             return;
         }
 
@@ -111,17 +162,22 @@ public class GameList implements IGameList {
                 int start = Integer.parseInt(parts[0]);
                 int end = Integer.parseInt(parts[1]);
 
-                if (start <= 0 || end <= 0 || start > gameList.size()) {
+                if (start <= 0 || end <= 0) {
                     throw new IllegalArgumentException("Invalid range: " + str);
                 }
 
-                // Ensure end does not exceed available games
-                if (end > gameList.size()) {
-                    end = gameList.size();
-                }
-
-                for (int i = start; i <= end; i++) {
-                    selectedGames.add(gameList.get(i - 1)); // Adjust for 1-based index
+                int[] added = {0};
+                filtered.skip(start - 1)
+                        .limit(Math.max(1, end - start + 1))
+                        .forEachOrdered(game -> {
+                            // an empty range such as 3-2 is valid as long as its start exists
+                            if (end >= start) {
+                                add(game);
+                            }
+                            added[0]++;
+                        });
+                if (added[0] == 0) {
+                    throw new IllegalArgumentException("Invalid range: " + str);
                 }
                 return;
             } catch (NumberFormatException e) {
@@ -131,40 +187,152 @@ public class GameList implements IGameList {
 
         try {
             int index = Integer.parseInt(str);
-            if (index <= 0 || index > gameList.size()) {
+            if (index <= 0) {
                 throw new IllegalArgumentException("Invalid index: " + str);
             }
-            selectedGames.add(gameList.get(index - 1)); // Adjust for 1-based index
+            add(filtered.skip(index - 1).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid index: " + str)));
             return;
         } catch (NumberFormatException ignored) {
             // Continue to name matching if str is not a number
         }
 
         // Find the game by name
-        for (BoardGame game : gameList) {
-            if (game.getName().trim().equalsIgnoreCase(str.trim())) {
-                selectedGames.add(game);
-                return;
+        String name = str.trim();
+        Optional<BoardGame> found;
+        if (catalog != null) {
+            int[] rows = catalog.rowsNamed(name);
+            if (rows.length == 0) {
+                throw new IllegalArgumentException("Game not found: " + str);
+            }
+            int[] ids = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                ids[i] = catalog.id(rows[i]);
             }
+            found = filtered.filter(game -> isOneOf(game.getId(), ids)).findFirst();
+        } else {
+            found = filtered.filter(game -> game.getName().trim().equalsIgnoreCase(name))
+                    .findFirst();
         }
-
-        throw new IllegalArgumentException("Game not found: " + str);
+        add(found.orElseThrow(() -> new IllegalArgumentException("Game not found: " + str)));
     }
 
-
-
     /**
      * Removes a game from the list if it exists.
+     * <p>
+     * With a catalog, the name is looked up in the catalog and its games removed by id, without
+     * going through the list.
      *
      * @param str The name of the game to remove.
      * @throws UnsupportedOperationException if the game is not found in the list.
      */
     @Override
     public void removeFromList(String str) throws IllegalArgumentException {
-        // TODO Auto-generated method stub
-        boolean removed = selectedGames.removeIf(game -> game.getName().equalsIgnoreCase(str));
+        boolean removed = false;
+        if (catalog != null) {
+            for (int row : catalog.rowsNamed(str)) {
+                removed |= remove(catalog.id(row));
+            }
+        } else {
+            int[] matches = games.stream().filter(game -> game.getName().equalsIgnoreCase(str))
+                    .mapToInt(BoardGame::getId).toArray();
+            for (int id : matches) {
+                removed |= remove(id);
+            }
+        }
         if (!removed) {
             throw new UnsupportedOperationException("Game not found in the list.");
         }
+        sortedNames = null;
+    }
+
+    /**
+     * Adds a game, keyed by its id. With a catalog only the game's row is kept.
+     *
+     * @param game the game
+     * @throws IllegalArgumentException if the game is not in the catalog
+     */
+    private void add(BoardGame game) {
+        int id = game.getId();
+        if (selectedGames.contains(id)) {
+            return;
+        }
+        if (catalog != null) {
+            selectedGames.add(id, rowOf(game));
+        } else {
+            selectedGames.add(id, games.size());
+            games.add(game);
+        }
+        sortedNames = null;
+    }
+
+    /**
+     * Removes the game with an id. Without a catalog, the last game takes the removed game's
+     * position.
+     *
+     * @param id the id
+     * @return true if a game was removed
+     */
+    private boolean remove(int id) {
+        int value = selectedGames.remove(id);
+        if (value < 0) {
+            return false;
+        }
+        if (games != null) {
+            BoardGame last = games.remove(games.size() - 1);
+            if (value < games.size()) {
+                games.set(value, last);
+                selectedGames.set(last.getId(), value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the catalog row of a game, by id and, for ids shared by several rows, by name.
+     *
+     * @param game the game
+     * @return the row
+     * @throws IllegalArgumentException if the game is not in the catalog
+     */
+    private int rowOf(BoardGame game) {
+        int row = catalog.rowOfId(game.getId());
+        if (row >= 0 && !catalog.name(row).equals(game.getName())) {
+            for (int named : catalog.rowsNamed(game.getName())) {
+                if (catalog.id(named) == game.getId()) {
+                    return named;
+                }
+            }
+        }
+        if (row < 0) {
+            throw new IllegalArgumentException("Game not in the catalog: " + game.getName());
+        }
+        return row;
+    }
+
+    /**
+     * Get the name of a selected game.
+     *
+     * @param value the value of the game's id: its row, or its position without a catalog
+     * @return the name
+     */
+    private String name(int value) {
+        return catalog != null ? catalog.name(value) : games.get(value).getName();
+    }
+
+    /**
+     * Checks if an id is one of a few ids.
+     *
+     * @param id  the id
+     * @param ids the ids
+     * @return true if it is
+     */
+    private static boolean isOneOf(int id, int[] ids) {
+        for (int other : ids) {
+            if (other == id) {
+                return true;
+            }
+        }
+        return false;
     }
 }
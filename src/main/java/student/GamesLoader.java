@@ -1,15 +1,22 @@
 package student;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Loads the games from the csv file into a set of BoardGame objects.
@@ -19,11 +26,32 @@ import java.util.stream.Collectors;
  * It assumes there are no comma's in the data (and does not handle errors if
  * there are extra commas like in the name).
  * 
+ * The file is streamed through a byte buffer and parsed by {@link GameCsvParser}, which only
+ * looks at the columns named in the header, so large collections load without building a
+ * String per line or per column.
+ * 
+ * Collections outside the resources folder can be loaded with {@link #loadCatalog(Path)},
+ * which memory maps the file and parses it in place, in newline aligned chunks, or with
+ * {@link #loadCatalogWithSnapshot(Path, boolean)}, which keeps a {@link CatalogSnapshot} next to
+ * the csv and skips parsing while the snapshot is up to date.
+ * 
  */
 public final class GamesLoader {
     /** Standard csv delim. */
     private static final String DELIMITER = ",";
 
+    /** Size of the read buffer, grown if a single line is longer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Largest part of a file mapped at once (a mapping is limited to 2 GB). */
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    /** Smallest chunk a mapped file is split into. */
+    private static final int MIN_CHUNK = 1 << 20;
+
+    /** Suffix of the binary snapshot kept next to a csv file. */
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
     /** private constructor to prevent instantiation. */
     private GamesLoader() {
     }
@@ -35,62 +63,468 @@ public final class GamesLoader {
      * @return a set of BoardGame objects
      */
     public static Set<BoardGame> loadGamesFile(String filename) {
-
+        GameCatalog catalog = loadCatalog(filename);
         Set<BoardGame> games = new HashSet<>();
+        for (int row = 0; row < catalog.size(); row++) {
+            games.add(catalog.game(row));
+        }
+        return games;
+    }
 
-        List<String> lines;
-        try {
-            // this is so we can store the files in the resources folder
-            InputStream is = GamesLoader.class.getResourceAsStream(filename);
-            InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-            BufferedReader reader = new BufferedReader(isr);
-            lines = reader.lines().collect(Collectors.toList());
-        } catch (Exception e) {
+    /**
+     * Loads the games from the csv file into a columnar catalog, without creating BoardGame
+     * objects.
+     *
+     * @param filename the name of the file to load
+     * @return a catalog holding the games, in file order
+     */
+    public static GameCatalog loadCatalog(String filename) {
+        return loadCatalog(filename, false);
+    }
+
+    /**
+     * Loads the games from the csv file into a columnar catalog, optionally parsing in parallel.
+     * <p>
+     * The sequential mode streams the file through a small buffer. The parallel mode reads the
+     * whole file into memory first and parses it like {@link #loadCatalog(Path, boolean)}.
+     *
+     * @param filename the name of the file to load
+     * @param parallel true to parse newline aligned chunks on the fork-join pool
+     * @return a catalog holding the games, in file order
+     */
+    public static GameCatalog loadCatalog(String filename, boolean parallel) {
+        // this is so we can store the files in the resources folder
+        try (InputStream is = GamesLoader.class.getResourceAsStream(filename)) {
+            if (is == null) {
+                throw new IOException("resource not found " + filename);
+            }
+            if (!parallel) {
+                return readCatalog(is);
+            }
+            byte[] bytes = is.readAllBytes();
+            List<Chunk> chunks = new ArrayList<>();
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            Map<GameData, Integer> columnMap = readHeader(buf, bytes.length, filename);
+            if (columnMap != null) {
+                splitChunks(buf, headerLength(buf, bytes.length), bytes.length, columnMap, chunks);
+            }
+            return parseChunks(chunks, true);
+        } catch (IOException | IllegalArgumentException e) {
             System.err.println("Error reading file: " + e.getMessage());
-            return games;
-        }
-        if (lines == null || lines.isEmpty()) {
-            return games;
+            return new CatalogBuilder().build();
         }
+    }
 
-        Map<GameData, Integer> columnMap = processHeader(lines.remove(0));
+    /**
+     * Loads the games from a csv file on the file system into a columnar catalog.
+     *
+     * @param file the csv file to load
+     * @return a catalog holding the games, in file order
+     * @throws IOException if the file cannot be read
+     * @see #loadCatalog(Path, boolean)
+     */
+    public static GameCatalog loadCatalog(Path file) throws IOException {
+        return loadCatalog(file, false);
+    }
 
-        games = lines.stream().map(line -> toBoardGame(line, columnMap))
-                .filter(game -> game != null).collect(Collectors.toSet());
+    /**
+     * Loads the games from a csv file on the file system into a columnar catalog.
+     * <p>
+     * The file is memory mapped, so the bytes are parsed where the operating system pages them
+     * in instead of being copied through a read buffer. Files larger than one mapping are mapped
+     * in windows that end on a line break. Each window is split into newline aligned chunks,
+     * which are parsed one after the other, or in parallel on the common fork-join pool. Each
+     * parallel task fills its own {@link CatalogBuilder}, and the builders are appended in file
+     * order at the end.
+     *
+     * @param file the csv file to load
+     * @param parallel true to parse the chunks in parallel
+     * @return a catalog holding the games, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static GameCatalog loadCatalog(Path file, boolean parallel) throws IOException {
+        return parseChunks(mapChunks(file), parallel);
+    }
 
-        return games;
+    /**
+     * Loads the games from a csv file on the file system, through a binary snapshot kept next to
+     * it.
+     * <p>
+     * If the snapshot exists and was made from a csv of the same size and modification time, it
+     * is mapped in and the csv is not parsed at all. Otherwise, or if the snapshot is unreadable
+     * or fails its checksum, the csv
+     * is parsed like {@link #loadCatalog(Path, boolean)} and the snapshot is rewritten. Failing
+     * to write the snapshot is reported but does not fail the load.
+     *
+     * @param file the csv file to load
+     * @param parallel true to parse the csv in parallel when it has to be parsed
+     * @return a catalog holding the games, in file order
+     * @throws IOException if the csv cannot be read
+     */
+    public static GameCatalog loadCatalogWithSnapshot(Path file, boolean parallel)
+            throws IOException {
+        Path snapshot = snapshotPath(file);
+        // taken before parsing, so a csv changed while it is parsed does not look up to date
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        if (Files.isRegularFile(snapshot)) {
+            try {
+                return CatalogSnapshot.read(snapshot, size, modified);
+            } catch (IOException e) {
+                System.err.println("Ignoring snapshot: " + e.getMessage());
+            }
+        }
+        GameCatalog catalog = loadCatalog(file, parallel);
+        try {
+            CatalogSnapshot.write(catalog, snapshot, size, modified);
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot: " + e.getMessage());
+        }
+        return catalog;
+    }
 
+    /**
+     * Get the path of the snapshot kept for a csv file.
+     *
+     * @param file the csv file
+     * @return the snapshot path, next to the csv
+     */
+    public static Path snapshotPath(Path file) {
+        return file.resolveSibling(file.getFileName() + SNAPSHOT_SUFFIX);
     }
 
     /**
-     * Converts a line from the csv file into a BoardGame object.
-     * 
-     * @param line      the line to convert
-     * @param columnMap the map of columns to index
-     * @return a BoardGame object
+     * Parses chunks and merges the results in chunk order.
+     *
+     * @param chunks the chunks to parse
+     * @param parallel true to parse the chunks on the common fork-join pool
+     * @return a catalog holding the games of all chunks
      */
-    private static BoardGame toBoardGame(String line, Map<GameData, Integer> columnMap) {
-        String[] columns = line.split(DELIMITER);
-        if (columns.length < columnMap.values().stream().max(Integer::compareTo).get()) {
-            return null;
+    static GameCatalog parseChunks(List<Chunk> chunks, boolean parallel) {
+        CatalogBuilder[] parts = new CatalogBuilder[chunks.size()];
+        if (parallel && parts.length > 1) {
+            ForkJoinPool.commonPool().invoke(new ParseTask(chunks, parts, 0, parts.length));
+        } else {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = chunks.get(i).parse();
+            }
+        }
+        if (parts.length == 1) {
+            return parts[0].build();
         }
+        int total = 0;
+        for (CatalogBuilder part : parts) {
+            total += part.size();
+        }
+        CatalogBuilder out = new CatalogBuilder(total);
+        for (CatalogBuilder part : parts) {
+            out.append(part);
+        }
+        return out.build();
+    }
 
-        try {
-            BoardGame game = new BoardGame(columns[columnMap.get(GameData.NAME)],
-                    Integer.parseInt(columns[columnMap.get(GameData.ID)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_TIME)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_TIME)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.DIFFICULTY)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.RANK)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.RATING)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.YEAR)]));
-            return game;
-        } catch (NumberFormatException e) {
-            // skip if there is an issue
+    /**
+     * Maps a csv file and splits it into newline aligned chunks of lines, after the header.
+     *
+     * @param file the csv file
+     * @return the chunks in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    static List<Chunk> mapChunks(Path file) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Map<GameData, Integer> columnMap = null;
+            long offset = 0;
+            while (offset < size) {
+                long length = Math.min(MAX_MAPPING, size - offset);
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                int end = (int) length;
+                if (offset + length < size) {
+                    end = lastLineBreak(window, end) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + MAX_MAPPING + " bytes");
+                    }
+                }
+                int start = 0;
+                if (columnMap == null) {
+                    columnMap = readHeader(window, end, file.toString());
+                    start = headerLength(window, end);
+                }
+                splitChunks(window, start, end, columnMap, chunks);
+                offset += end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Reads the header line at the start of a buffer.
+     *
+     * @param buf    the buffer
+     * @param end    end of the data (exclusive)
+     * @param source name of the file, for error messages
+     * @return the header layout, or null if the buffer is empty
+     * @throws IOException if the header is missing required columns
+     */
+    private static Map<GameData, Integer> readHeader(ByteBuffer buf, int end, String source)
+            throws IOException {
+        if (end == 0) {
             return null;
         }
+        int headerEnd = nextLineBreak(buf, 0, end);
+        int textEnd = headerEnd > 0 && buf.get(headerEnd - 1) == '\r' ? headerEnd - 1 : headerEnd;
+        byte[] header = new byte[textEnd];
+        buf.get(0, header);
+        Map<GameData, Integer> columnMap =
+                processHeader(new String(header, StandardCharsets.UTF_8));
+        try {
+            new GameCsvParser(columnMap);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid header in " + source + ": " + e.getMessage());
+        }
+        return columnMap;
+    }
+
+    /**
+     * Get the length of the header line, including its line break.
+     *
+     * @param buf the buffer
+     * @param end end of the data (exclusive)
+     * @return the position of the first data line
+     */
+    private static int headerLength(ByteBuffer buf, int end) {
+        return Math.min(nextLineBreak(buf, 0, end) + 1, end);
+    }
+
+    /**
+     * Splits part of a mapping into chunks that each end right after a line break (or at the
+     * end of the part).
+     *
+     * @param buf       the mapping
+     * @param start     first byte of the part
+     * @param end       end of the part (exclusive)
+     * @param columnMap the header layout
+     * @param chunks    the list to add chunks to
+     */
+    private static void splitChunks(ByteBuffer buf, int start, int end,
+                                    Map<GameData, Integer> columnMap, List<Chunk> chunks) {
+        int target = Math.max(MIN_CHUNK,
+                (end - start) / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        while (start < end) {
+            int split = (int) Math.min((long) start + target, end);
+            if (split < end) {
+                split = Math.min(nextLineBreak(buf, split, end) + 1, end);
+            }
+            chunks.add(new Chunk(buf, start, split, columnMap));
+            start = split;
+        }
+    }
+
+    /**
+     * Finds the next line break.
+     *
+     * @param buf   the buffer
+     * @param from  first position to look at
+     * @param end   end of the data (exclusive)
+     * @return the position of the line break, or end if there is none
+     */
+    private static int nextLineBreak(ByteBuffer buf, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Finds the last line break before a position.
+     *
+     * @param buf the buffer
+     * @param end end of the data (exclusive)
+     * @return the position of the line break, or -1 if there is none
+     */
+    private static int lastLineBreak(ByteBuffer buf, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a csv collection from a stream, one buffer at a time.
+     *
+     * @param in the stream to read
+     * @return a catalog holding the games, in file order
+     * @throws IOException if the stream cannot be read
+     */
+    static GameCatalog readCatalog(InputStream in) throws IOException {
+        CatalogBuilder out = new CatalogBuilder();
+        GameCsvParser parser = null;
+        byte[] buf = new byte[BUFFER_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(buf);
+        int length = 0; // bytes in buf
+        int lineStart = 0; // first byte not yet parsed
+        int scan = 0; // where to continue looking for a line break
+        boolean eof = false;
+        while (!eof) {
+            if (length == buf.length) {
+                // make room: drop parsed lines, or grow if one line fills the buffer
+                if (lineStart == 0) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                    view = ByteBuffer.wrap(buf);
+                } else {
+                    System.arraycopy(buf, lineStart, buf, 0, length - lineStart);
+                    length -= lineStart;
+                    scan -= lineStart;
+                    lineStart = 0;
+                }
+            }
+            int read = in.read(buf, length, buf.length - length);
+            if (read < 0) {
+                eof = true;
+            } else {
+                length += read;
+            }
+
+            int lineEnd = eof ? length : -1;
+            for (; scan < length; scan++) {
+                if (buf[scan] == '\n') {
+                    parser = parseLine(view, lineStart, scan, parser, out);
+                    lineStart = scan + 1;
+                }
+            }
+            if (lineEnd > lineStart) {
+                parser = parseLine(view, lineStart, lineEnd, parser, out);
+                lineStart = lineEnd;
+            }
+        }
+        return out.build();
+    }
+
+    /**
+     * Handles one line: the first line sets up the parser from the header, later lines are
+     * parsed into the builder.
+     *
+     * @param buf    the buffer holding the line
+     * @param start  first byte of the line
+     * @param end    position of the line break, or end of data
+     * @param parser the parser, or null while the header has not been read
+     * @param out    the builder to add games to
+     * @return the parser to use for the following lines
+     */
+    static GameCsvParser parseLine(ByteBuffer buf, int start, int end, GameCsvParser parser,
+                                   CatalogBuilder out) {
+        if (end > start && buf.get(end - 1) == '\r') {
+            end--;
+        }
+        if (parser == null) {
+            byte[] header = new byte[end - start];
+            buf.get(start, header);
+            return new GameCsvParser(processHeader(new String(header, StandardCharsets.UTF_8)));
+        }
+        if (end > start) {
+            parser.parseLine(buf, start, end, out);
+        }
+        return parser;
+    }
+
+    /**
+     * A run of whole csv lines inside a mapped file.
+     */
+    static final class Chunk {
+        /** The mapping holding the lines. */
+        private final ByteBuffer buf;
+        /** First byte of the chunk. */
+        private final int start;
+        /** End of the chunk (exclusive). */
+        private final int end;
+        /** The header layout of the file. */
+        private final Map<GameData, Integer> columnMap;
+
+        /**
+         * Constructs a chunk.
+         *
+         * @param buf       the mapping holding the lines
+         * @param start     first byte of the chunk
+         * @param end       end of the chunk (exclusive)
+         * @param columnMap the header layout of the file
+         */
+        Chunk(ByteBuffer buf, int start, int end, Map<GameData, Integer> columnMap) {
+            this.buf = buf;
+            this.start = start;
+            this.end = end;
+            this.columnMap = columnMap;
+        }
+
+        /**
+         * Parses the lines of the chunk into a new builder.
+         *
+         * @return the builder holding the chunk's games
+         */
+        CatalogBuilder parse() {
+            CatalogBuilder out = new CatalogBuilder((end - start) / 64);
+            GameCsvParser parser = new GameCsvParser(columnMap);
+            int lineStart = start;
+            for (int i = start; i < end; i++) {
+                if (buf.get(i) == '\n') {
+                    parseLine(buf, lineStart, i, parser, out);
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart < end) {
+                parseLine(buf, lineStart, end, parser, out);
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Fork-join task that parses a range of chunks, splitting the range in half until a single
+     * chunk is left.
+     */
+    private static final class ParseTask extends RecursiveAction {
+        /** Serialization version, as tasks are serializable. */
+        private static final long serialVersionUID = 1L;
+        /** The chunks to parse. */
+        private final List<Chunk> chunks;
+        /** Result of each chunk, filled in by the tasks. */
+        private final CatalogBuilder[] parts;
+        /** First chunk of this task. */
+        private final int from;
+        /** End of this task's chunks (exclusive). */
+        private final int to;
+
+        /**
+         * Constructs a task.
+         *
+         * @param chunks the chunks to parse
+         * @param parts  result of each chunk
+         * @param from   first chunk of this task
+         * @param to     end of this task's chunks (exclusive)
+         */
+        ParseTask(List<Chunk> chunks, CatalogBuilder[] parts, int from, int to) {
+            this.chunks = chunks;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parses the chunk, or splits the range into two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                parts[from] = chunks.get(from).parse();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParseTask(chunks, parts, from, mid), new ParseTask(chunks, parts, mid, to));
+        }
     }
 
     /**
@@ -1,5 +1,7 @@
 package student;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -115,6 +117,84 @@ public interface IPlanner {
      */
     Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending);
 
+    /**
+     * Filters the board games by the passed in text filter, and returns only the first limit
+     * games of the sorted result.
+     * 
+     * Useful when only the first page of a large result is shown. Implementations should avoid
+     * sorting the whole result to find the first games.
+     * 
+     * @param filter The filter to apply to the board games.
+     * @param sortOn The column to sort the results on.
+     * @param ascending Whether to sort the results in ascending order or descending order.
+     * @param limit The maximum number of games to return.
+     * @return A stream of at most limit board games that match the filter.
+     * @see #filter(String, GameData, boolean)
+     */
+    default Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending, int limit) {
+        return filter(filter, sortOn, ascending).limit(limit);
+    }
+
+    /**
+     * Filters the board games by the passed in text filter, and sorts them on several columns.
+     * The first key decides the order, and every next key breaks the ties left by the keys
+     * before it, for example rating descending, then year ascending, then name.
+     * 
+     * This default sorts the games with a chain of comparators. Implementations should sort on
+     * primitive keys instead.
+     * 
+     * @param filter The filter to apply to the board games.
+     * @param sortOn The sort keys, most significant first (see {@link SortKey#parse(String)}).
+     * @return A stream of board games that match the filter, sorted.
+     * @throws IllegalArgumentException if no sort key is given.
+     * @see #filter(String, GameData, boolean)
+     */
+    default Stream<BoardGame> filter(String filter, List<SortKey> sortOn) {
+        if (sortOn.isEmpty()) {
+            throw new IllegalArgumentException("No sort column given.");
+        }
+        return filter(filter).sorted(SortKey.comparator(sortOn));
+    }
+
+    /**
+     * Filters and sorts the board games like {@link #filter(String, GameData, boolean)}, and
+     * returns one page of the result.
+     * 
+     * Pass null as cursor for the first page, and the cursor of a page to get the page after
+     * it, with the same sort column and direction. As filters are progressive, later pages can
+     * pass an empty filter (or the same filter again).
+     * 
+     * This default pages by position, skipping the earlier games of the sorted result.
+     * Implementations should override it with cursors that point at the last game of a page,
+     * so a page never depends on computing the pages before it.
+     * 
+     * @param filter The filter to apply to the board games.
+     * @param sortOn The column to sort the results on.
+     * @param ascending Whether to sort the results in ascending order or descending order.
+     * @param pageSize The maximum number of games on the page.
+     * @param cursor The cursor of the previous page, or null for the first page.
+     * @return The page.
+     * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid.
+     */
+    default Page page(String filter, GameData sortOn, boolean ascending, int pageSize,
+            String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        long offset;
+        try {
+            offset = cursor == null ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        List<BoardGame> games = filter(filter, sortOn, ascending).skip(offset)
+                .limit(pageSize + 1L).collect(Collectors.toList());
+        if (games.size() <= pageSize) {
+            return new Page(games, null);
+        }
+        return new Page(games.subList(0, pageSize), Long.toString(offset + pageSize));
+    }
+
     /**
      * Resets the collection to have no filters applied.
      */
@@ -0,0 +1,254 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Trigram index over the lower case names of a {@link GameCatalog}, for {@code name~=} filters.
+ * <p>
+ * Every run of three characters of a lower case name is a trigram, and the index keeps the
+ * ascending rows of the names that contain each trigram. A name that contains a text contains
+ * every trigram of the text, so a search intersects the posting lists of the text's trigrams,
+ * shortest first, and only checks the few rows left with {@link String#contains}. Texts shorter
+ * than three characters have no trigram and are checked against every name.
+ * <p>
+ * The posting lists are stored back to back in one array, with an offset per trigram, and
+ * trigrams get their ids from an open addressing table of packed chars, so building the index
+ * boxes nothing.
+ */
+final class NameIndex {
+    /**
+     * Number of characters in a gram.
+     */
+    private static final int GRAM = 3;
+
+    /**
+     * Lower case name of each row.
+     */
+    private final String[] lowerNames;
+    /**
+     * Packed trigram plus one of each hash slot, 0 for an empty slot.
+     */
+    private long[] slotKeys = new long[1 << 12];
+    /**
+     * Trigram id of each hash slot.
+     */
+    private int[] slotIds = new int[1 << 12];
+    /**
+     * Number of distinct trigrams.
+     */
+    private int grams;
+    /**
+     * Start of each trigram's rows in postings; the rows of id i are [offsets[i], offsets[i+1]).
+     */
+    private final int[] offsets;
+    /**
+     * Rows of every trigram, ascending within a trigram.
+     */
+    private final int[] postings;
+
+    /**
+     * Builds the index for the names of a catalog.
+     *
+     * @param catalog the catalog
+     */
+    NameIndex(GameCatalog catalog) {
+        int n = catalog.size();
+        lowerNames = new String[n];
+        int[] counts = new int[16];
+        int[] lastRow = new int[16];
+        for (int row = 0; row < n; row++) {
+            String lower = catalog.name(row).toLowerCase();
+            lowerNames[row] = lower;
+            for (int i = 0; i + GRAM <= lower.length(); i++) {
+                int id = idOf(pack(lower, i), true);
+                if (id >= counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                    lastRow = Arrays.copyOf(lastRow, lastRow.length * 2);
+                }
+                // a name counts once per trigram, however often it repeats the trigram
+                if (counts[id] == 0 || lastRow[id] != row) {
+                    counts[id]++;
+                    lastRow[id] = row;
+                }
+            }
+        }
+
+        offsets = new int[grams + 1];
+        for (int id = 0; id < grams; id++) {
+            offsets[id + 1] = offsets[id] + counts[id];
+        }
+        postings = new int[offsets[grams]];
+        int[] fill = Arrays.copyOf(offsets, grams);
+        for (int row = 0; row < n; row++) {
+            String lower = lowerNames[row];
+            for (int i = 0; i + GRAM <= lower.length(); i++) {
+                int id = idOf(pack(lower, i), false);
+                if (fill[id] == offsets[id] || postings[fill[id] - 1] != row) {
+                    postings[fill[id]++] = row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the lower case name of a row.
+     *
+     * @param row the row
+     * @return the name in lower case
+     */
+    String lowerName(int row) {
+        return lowerNames[row];
+    }
+
+    /**
+     * Finds the rows whose name contains a text.
+     *
+     * @param text the lower case text
+     * @return the matching rows
+     */
+    RowBitmap contains(String text) {
+        int[] candidates = candidates(text);
+        int count = 0;
+        if (candidates == null) {
+            candidates = new int[lowerNames.length];
+            for (int row = 0; row < lowerNames.length; row++) {
+                if (lowerNames[row].contains(text)) {
+                    candidates[count++] = row;
+                }
+            }
+            return RowBitmap.of(candidates, count);
+        }
+        for (int row : candidates) {
+            if (lowerNames[row].contains(text)) {
+                candidates[count++] = row;
+            }
+        }
+        return RowBitmap.of(candidates, count);
+    }
+
+    /**
+     * Intersects the posting lists of every trigram of a text.
+     *
+     * @param text the lower case text
+     * @return rows that contain every trigram, or null if the text is too short to have any
+     */
+    private int[] candidates(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return null;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            int id = idOf(pack(text, i), false);
+            if (id < 0) {
+                return new int[0];
+            }
+            order[i] = id;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(offsets[a + 1] - offsets[a],
+                offsets[b + 1] - offsets[b]));
+
+        int first = order[0];
+        int[] result = Arrays.copyOfRange(postings, offsets[first], offsets[first + 1]);
+        int size = result.length;
+        for (int i = 1; i < count && size > 0; i++) {
+            int id = order[i];
+            size = intersect(result, size, offsets[id], offsets[id + 1]);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Keeps the rows of a sorted array that also appear in a range of the postings, searching
+     * the postings with galloping steps since they are usually much longer.
+     *
+     * @param rows  sorted rows, overwritten with the result
+     * @param size  number of rows used
+     * @param from  start of the posting list
+     * @param to    end of the posting list
+     * @return number of rows kept
+     */
+    private int intersect(int[] rows, int size, int from, int to) {
+        int kept = 0;
+        int pos = from;
+        for (int i = 0; i < size && pos < to; i++) {
+            int row = rows[i];
+            int step = 1;
+            int hi = pos;
+            while (hi < to && postings[hi] < row) {
+                pos = hi + 1;
+                hi = pos + step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(postings, pos, Math.min(hi + 1, to), row);
+            if (found >= 0) {
+                rows[kept++] = row;
+                pos = found + 1;
+            } else {
+                pos = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Looks up the id of a trigram in the open addressing table, optionally adding it.
+     *
+     * @param gram the packed trigram
+     * @param add  true to give an unknown trigram the next id
+     * @return the id, or -1 if the trigram is unknown and not added
+     */
+    private int idOf(long gram, boolean add) {
+        long key = gram + 1;
+        int mask = slotKeys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (slotKeys[slot] != 0) {
+            if (slotKeys[slot] == key) {
+                return slotIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!add) {
+            return -1;
+        }
+        slotKeys[slot] = key;
+        slotIds[slot] = grams;
+        if (++grams * 2 > slotKeys.length) {
+            rehash();
+        }
+        return grams - 1;
+    }
+
+    /**
+     * Doubles the hash table.
+     */
+    private void rehash() {
+        long[] oldKeys = slotKeys;
+        int[] oldIds = slotIds;
+        slotKeys = new long[oldKeys.length * 2];
+        slotIds = new int[oldKeys.length * 2];
+        int mask = slotKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+                while (slotKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotKeys[slot] = oldKeys[i];
+                slotIds[slot] = oldIds[i];
+            }
+        }
+    }
+
+    /**
+     * Packs three characters of a string into one key.
+     *
+     * @param text  the string
+     * @param start index of the first character
+     * @return the packed trigram
+     */
+    private static long pack(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+}
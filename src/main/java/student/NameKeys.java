@@ -0,0 +1,105 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Collation keys for sorting names in {@link String#CASE_INSENSITIVE_ORDER}.
+ * <p>
+ * The case insensitive order folds both characters on every comparison, so sorting n names folds
+ * O(n log n) times. Folding every name once instead gives keys that plain {@link String#compareTo}
+ * orders the same way, and replacing each key by its position among the distinct keys gives a
+ * dense int rank: names that are equal ignoring case share a rank. Sorts then compare ints.
+ */
+final class NameKeys {
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NameKeys() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Folds a character the way case insensitive comparisons do.
+     *
+     * @param c the character
+     * @return the folded character
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Gives every name its dense rank in case insensitive order.
+     *
+     * @param names the names
+     * @param size  number of names to rank
+     * @return the rank of each name, from 0
+     */
+    static int[] ranks(String[] names, int size) {
+        Key[] keys = new Key[size];
+        for (int i = 0; i < size; i++) {
+            char[] chars = names[i].toCharArray();
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = fold(chars[j]);
+            }
+            keys[i] = new Key(new String(chars), i);
+        }
+        Arrays.sort(keys, (a, b) -> a.text.compareTo(b.text));
+        int[] ranks = new int[size];
+        int rank = -1;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || !keys[i].text.equals(keys[i - 1].text)) {
+                rank++;
+            }
+            ranks[keys[i].position] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Sorts positions by rank, ties by position in both directions, with one sort of packed
+     * longs.
+     *
+     * @param ranks     the rank of each position
+     * @param ascending true for ascending ranks, false for descending
+     * @return the positions in order
+     */
+    static int[] order(int[] ranks, boolean ascending) {
+        long[] packed = new long[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            long key = ascending ? ranks[i] : Integer.MAX_VALUE - ranks[i];
+            packed[i] = (key << 32) | i;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[ranks.length];
+        for (int i = 0; i < packed.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * A collation key with the position of its name.
+     */
+    private static final class Key {
+        /**
+         * The folded name.
+         */
+        private final String text;
+        /**
+         * Position of the name.
+         */
+        private final int position;
+
+        /**
+         * Constructs a key.
+         *
+         * @param text     the folded name
+         * @param position position of the name
+         */
+        private Key(String text, int position) {
+            this.text = text;
+            this.position = position;
+        }
+    }
+}
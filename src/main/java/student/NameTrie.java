@@ -0,0 +1,341 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Case folded radix trie over the names of a {@link GameCatalog}, for exact name lookups and
+ * prefix completion.
+ * <p>
+ * Names are folded per character the way {@link String#equalsIgnoreCase} and
+ * {@link String#CASE_INSENSITIVE_ORDER} compare them, so the trie is laid over the catalog's
+ * NAME permutation: every node covers a contiguous range of that order, and the names that end
+ * at a node come first in its range. Only branching points are nodes, and edge labels are read
+ * from the names themselves, so the trie takes a few ints per name. Children of a node are
+ * stored next to each other, sorted by their first character, and are found by binary search.
+ * <p>
+ * An exact lookup walks one edge per branching point, O(length of the name). A completion walks
+ * to the prefix and ranks the names under it; nodes with many names keep their best few rows
+ * for each ranking, so short prefixes do not rank thousands of names per keystroke.
+ */
+final class NameTrie {
+    /**
+     * Nodes with at least this many names keep their best rows per ranking.
+     */
+    private static final int CACHE_THRESHOLD = 256;
+    /**
+     * Number of best rows kept per cached node.
+     */
+    private static final int CACHED_TOP = 16;
+
+    /**
+     * The catalog whose names are indexed.
+     */
+    private final GameCatalog catalog;
+    /**
+     * Rows in case insensitive name order.
+     */
+    private final int[] order;
+    /**
+     * First position of each node's range in order.
+     */
+    private int[] from;
+    /**
+     * End (exclusive) of each node's range in order.
+     */
+    private int[] to;
+    /**
+     * Number of folded characters from the root to the end of each node.
+     */
+    private int[] depth;
+    /**
+     * Number of names that end exactly at each node; they start its range.
+     */
+    private int[] exact;
+    /**
+     * Index of each node's first child.
+     */
+    private int[] firstChild;
+    /**
+     * Number of children of each node.
+     */
+    private int[] childCount;
+    /**
+     * Number of nodes.
+     */
+    private int nodes;
+    /**
+     * Best rows by rating of cached nodes, CACHED_TOP slots per node, or null slots.
+     */
+    private final int[][] topByRating;
+    /**
+     * Best rows by rank of cached nodes.
+     */
+    private final int[][] topByRank;
+
+    /**
+     * Builds the trie for a catalog.
+     *
+     * @param catalog the catalog, with its index already built
+     */
+    NameTrie(GameCatalog catalog) {
+        this.catalog = catalog;
+        this.order = catalog.index().order(GameData.NAME, true);
+        int capacity = Math.max(16, 2 * order.length + 1);
+        from = new int[capacity];
+        to = new int[capacity];
+        depth = new int[capacity];
+        exact = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        build();
+        topByRating = new int[nodes][];
+        topByRank = new int[nodes][];
+        for (int node = nodes - 1; node >= 0; node--) {
+            if (to[node] - from[node] >= CACHE_THRESHOLD) {
+                topByRating[node] = best(candidates(node, topByRating), GameData.RATING,
+                        CACHED_TOP);
+                topByRank[node] = best(candidates(node, topByRank), GameData.RANK, CACHED_TOP);
+            }
+        }
+    }
+
+    /**
+     * Finds the rows whose name equals a text, ignoring case.
+     *
+     * @param text the name to look up
+     * @return the matching rows, ascending
+     */
+    int[] exact(String text) {
+        int node = find(text, true);
+        if (node < 0) {
+            return new int[0];
+        }
+        int[] rows = Arrays.copyOfRange(order, from[node], from[node] + exact[node]);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /**
+     * Finds the best rows whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @param rankBy RATING for highest rating first, RANK for best rank first (unranked last)
+     * @param limit  maximum number of rows
+     * @return the rows, best first, ties by row
+     * @throws IllegalArgumentException if the ranking column is not RATING or RANK
+     */
+    int[] complete(String prefix, GameData rankBy, int limit) {
+        if (rankBy != GameData.RATING && rankBy != GameData.RANK) {
+            throw new IllegalArgumentException("Completions rank by rating or rank only.");
+        }
+        int node = find(prefix, false);
+        if (node < 0 || limit <= 0) {
+            return new int[0];
+        }
+        int[][] cache = rankBy == GameData.RATING ? topByRating : topByRank;
+        if (cache[node] != null && limit <= cache[node].length) {
+            return Arrays.copyOf(cache[node], limit);
+        }
+        return best(Arrays.copyOfRange(order, from[node], to[node]), rankBy, limit);
+    }
+
+    /**
+     * Walks the trie along a text.
+     *
+     * @param text       the text
+     * @param wholeNames true to only accept a node the text ends at, false to also accept the
+     *                   node of an edge the text ends inside
+     * @return the node, or -1 if no name matches
+     */
+    private int find(String text, boolean wholeNames) {
+        int node = 0;
+        int pos = 0;
+        while (pos < text.length()) {
+            int child = child(node, NameKeys.fold(text.charAt(pos)));
+            if (child < 0) {
+                return -1;
+            }
+            String label = catalog.name(order[from[child]]);
+            int end = Math.min(text.length(), depth[child]);
+            for (int i = pos + 1; i < end; i++) {
+                if (NameKeys.fold(label.charAt(i)) != NameKeys.fold(text.charAt(i))) {
+                    return -1;
+                }
+            }
+            if (end < depth[child] && wholeNames) {
+                return -1;
+            }
+            node = child;
+            pos = end;
+        }
+        return node;
+    }
+
+    /**
+     * Finds the child of a node whose edge starts with a character.
+     *
+     * @param node the node
+     * @param c    the folded character
+     * @return the child, or -1 if there is none
+     */
+    private int child(int node, char c) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = NameKeys.fold(catalog.name(order[from[mid]]).charAt(depth[node]));
+            if (first < c) {
+                lo = mid + 1;
+            } else if (first > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the nodes breadth first, so the children of every node are stored together.
+     */
+    private void build() {
+        nodes = 1;
+        from[0] = 0;
+        to[0] = order.length;
+        depth[0] = 0;
+        for (int node = 0; node < nodes; node++) {
+            int d = depth[node];
+            int pos = from[node];
+            while (pos < to[node] && name(pos).length() == d) {
+                pos++;
+            }
+            exact[node] = pos - from[node];
+            firstChild[node] = nodes;
+            while (pos < to[node]) {
+                char c = NameKeys.fold(name(pos).charAt(d));
+                int end = pos + 1;
+                while (end < to[node] && NameKeys.fold(name(end).charAt(d)) == c) {
+                    end++;
+                }
+                addNode(pos, end, commonPrefix(name(pos), name(end - 1), d + 1));
+                pos = end;
+            }
+            childCount[node] = nodes - firstChild[node];
+        }
+    }
+
+    /**
+     * Appends a node.
+     *
+     * @param start first position of its range
+     * @param end   end of its range, exclusive
+     * @param d     its depth
+     */
+    private void addNode(int start, int end, int d) {
+        if (nodes == from.length) {
+            int capacity = nodes * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            exact = Arrays.copyOf(exact, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+        }
+        from[nodes] = start;
+        to[nodes] = end;
+        depth[nodes] = d;
+        nodes++;
+    }
+
+    /**
+     * Collects the rows a cached node ranks: its own names, the cached best rows of its cached
+     * children and every row of the others.
+     *
+     * @param node  the node
+     * @param cache the cache being filled, children already done
+     * @return the candidate rows
+     */
+    private int[] candidates(int node, int[][] cache) {
+        int[] rows = new int[to[node] - from[node]];
+        int count = 0;
+        for (int i = from[node]; i < from[node] + exact[node]; i++) {
+            rows[count++] = order[i];
+        }
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (cache[child] != null) {
+                for (int row : cache[child]) {
+                    rows[count++] = row;
+                }
+            } else {
+                for (int i = from[child]; i < to[child]; i++) {
+                    rows[count++] = order[i];
+                }
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Selects the best rows by a ranking.
+     *
+     * @param rows   the rows to rank
+     * @param rankBy RATING or RANK
+     * @param limit  maximum number of rows
+     * @return the best rows, best first
+     */
+    private int[] best(int[] rows, GameData rankBy, int limit) {
+        if (rankBy == GameData.RATING) {
+            return new RowOrder(catalog, GameData.RATING, false).first(rows, limit);
+        }
+        // unranked games have rank 0; they go after every ranked game, by row
+        int[] ranks = catalog.intColumn(GameData.RANK);
+        int[] ranked = new int[rows.length];
+        int[] unranked = new int[rows.length];
+        int rankedCount = 0;
+        int unrankedCount = 0;
+        for (int row : rows) {
+            if (ranks[row] == 0) {
+                unranked[unrankedCount++] = row;
+            } else {
+                ranked[rankedCount++] = row;
+            }
+        }
+        int[] first = new RowOrder(catalog, GameData.RANK, true)
+                .first(Arrays.copyOf(ranked, rankedCount), limit);
+        int size = Math.min(limit, rows.length);
+        if (first.length == size) {
+            return first;
+        }
+        Arrays.sort(unranked, 0, unrankedCount);
+        int[] out = Arrays.copyOf(first, size);
+        System.arraycopy(unranked, 0, out, first.length, size - first.length);
+        return out;
+    }
+
+    /**
+     * Get the name at a position of the name order.
+     *
+     * @param pos the position
+     * @return the name
+     */
+    private String name(int pos) {
+        return catalog.name(order[pos]);
+    }
+
+    /**
+     * Counts the folded characters two names share, knowing they share the first ones.
+     *
+     * @param a     a name
+     * @param b     another name
+     * @param known number of characters known to be shared
+     * @return the length of the common prefix
+     */
+    private static int commonPrefix(String a, String b, int known) {
+        int max = Math.min(a.length(), b.length());
+        int i = known;
+        while (i < max && NameKeys.fold(a.charAt(i)) == NameKeys.fold(b.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,58 @@
+package student;
+
+import java.util.List;
+
+/**
+ * One page of a sorted query, with the cursor to fetch the page after it.
+ * <p>
+ * Cursors are opaque strings. Pass the cursor of a page back with the same sort column and
+ * direction to get the next page; no earlier page is kept or recomputed.
+ */
+public final class Page {
+    /**
+     * Games on the page, in sorted order.
+     */
+    private final List<BoardGame> games;
+    /**
+     * Cursor of the next page, or null on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Constructs a page.
+     *
+     * @param games      games on the page
+     * @param nextCursor cursor of the next page, or null on the last page
+     */
+    public Page(List<BoardGame> games, String nextCursor) {
+        this.games = List.copyOf(games);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Get the games on the page.
+     *
+     * @return an unmodifiable list of games, in sorted order
+     */
+    public List<BoardGame> getGames() {
+        return games;
+    }
+
+    /**
+     * Get the cursor of the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks if there are more games after this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
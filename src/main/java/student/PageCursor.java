@@ -0,0 +1,146 @@
+package student;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a sorted query: the sort column and direction, and the sort key and row of the
+ * last game returned. Rows are ordered by key and then by ascending row, so the pair names one
+ * exact position and the next page starts right after it, whatever happened before.
+ * <p>
+ * Cursors travel as URL safe base64 text, so clients treat them as opaque.
+ */
+final class PageCursor {
+    /**
+     * Separates the fields of the encoded cursor. Names may contain it, so the key is last.
+     */
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Sort column.
+     */
+    private final GameData column;
+    /**
+     * Sort direction.
+     */
+    private final boolean ascending;
+    /**
+     * Row of the last game returned.
+     */
+    private final int row;
+    /**
+     * Numeric sort key of the last game, for every column but NAME.
+     */
+    private final double number;
+    /**
+     * Name of the last game, for NAME.
+     */
+    private final String text;
+
+    /**
+     * Constructs a cursor.
+     *
+     * @param column    sort column
+     * @param ascending sort direction
+     * @param row       row of the last game
+     * @param number    numeric key
+     * @param text      name key, or null
+     */
+    private PageCursor(GameData column, boolean ascending, int row, double number, String text) {
+        this.column = column;
+        this.ascending = ascending;
+        this.row = row;
+        this.number = number;
+        this.text = text;
+    }
+
+    /**
+     * Builds the cursor that points right after a row.
+     *
+     * @param catalog   the catalog
+     * @param column    sort column
+     * @param ascending sort direction
+     * @param row       the last row returned
+     * @return the cursor
+     */
+    static PageCursor after(GameCatalog catalog, GameData column, boolean ascending, int row) {
+        if (column == GameData.NAME) {
+            return new PageCursor(column, ascending, row, 0, catalog.name(row));
+        }
+        double key = GameCatalog.isDoubleColumn(column) ? catalog.doubleColumn(column)[row]
+                : catalog.intColumn(column)[row];
+        return new PageCursor(column, ascending, row, key, null);
+    }
+
+    /**
+     * Decodes a cursor and checks it belongs to a query.
+     *
+     * @param cursor    the encoded cursor
+     * @param column    sort column of the query
+     * @param ascending sort direction of the query
+     * @return the cursor
+     * @throws IllegalArgumentException if the cursor is malformed or was made for another sort
+     */
+    static PageCursor decode(String cursor, GameData column, boolean ascending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (parts.length != 4 || !parts[0].equals(column.name())
+                || !parts[1].equals(ascending ? "a" : "d")) {
+            throw new IllegalArgumentException("Cursor does not match the sort: " + cursor);
+        }
+        try {
+            int row = Integer.parseInt(parts[2]);
+            if (column == GameData.NAME) {
+                return new PageCursor(column, ascending, row, 0, parts[3]);
+            }
+            return new PageCursor(column, ascending, row, Double.parseDouble(parts[3]), null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encodes the cursor.
+     *
+     * @return opaque URL safe text
+     */
+    String encode() {
+        String key = column == GameData.NAME ? text : Double.toString(number);
+        String plain = column.name() + SEPARATOR + (ascending ? "a" : "d") + SEPARATOR + row
+                + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the row of the last game returned.
+     *
+     * @return the row
+     */
+    int row() {
+        return row;
+    }
+
+    /**
+     * Get the numeric sort key.
+     *
+     * @return the key, unused for NAME
+     */
+    double number() {
+        return number;
+    }
+
+    /**
+     * Get the name sort key.
+     *
+     * @return the key, or null for numeric columns
+     */
+    String text() {
+        return text;
+    }
+}
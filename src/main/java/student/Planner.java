@@ -1,23 +1,60 @@
 package student;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * The Planner class manages the filtering and sorting of board games.
  * It applies various filtering and sorting strategies to return a customized game list.
+ * <p>
+ * The games are held in a columnar {@link GameCatalog}. Filters run over the catalog's arrays,
+ * and BoardGame objects are only built for the games that pass.
+ * <p>
+ * Filters are progressive, as {@link IPlanner} describes: each filter narrows the result of the
+ * previous ones until {@link #reset()}. The current result is kept as a row bitmap, so a new
+ * condition only has to look at the rows that are still in, or is intersected with the cached
+ * bitmap of the condition when most rows are still in.
+ * <p>
+ * A planner is one user session. The catalog is immutable and shared by every session created
+ * from it with {@link #newSession()}; the session's own state is a single immutable
+ * {@link QueryState} swapped through a volatile field, so sessions can run on any number of
+ * threads without locks and without copying the catalog.
+ * <p>
+ * Row loops over many rows (checking the rows of a large result, top-K over many matches) are
+ * split over the threads of a {@link QueryExecutor}, whose pool is shared by every session and
+ * capped in size; the usual small loops run on the calling thread.
+ * <p>
+ * Results are cached in a {@link ResultCache} shared by the sessions, keyed by the session's
+ * combined filter and the sort order, so a query any session has run before is answered without
+ * filtering or sorting. {@link #reload(GameCatalog)} empties the cache and moves every session to
+ * the new catalog. Nothing in the console app calls it: it is there for code that embeds the
+ * planner, such as {@link PlannerServer#reload(GameCatalog)}.
  */
 public class Planner implements IPlanner {
 
     /**
      * Stores the complete list of board games from the dataset.
      */
-    private Set<BoardGame> masterList;
+    private volatile GameCatalog catalog;
 
     /**
-     * Stores the current filtered list of board games.
+     * Runs the row loops of queries, on this thread or split over a pool for large loops.
      */
-    private Stream<BoardGame> filteredGames;
+    private final QueryExecutor executor;
+
+    /**
+     * Results of earlier queries, and the current catalog, shared by the sessions.
+     */
+    private final ResultCache cache;
+
+    /**
+     * The session's current query and its result.
+     */
+    private volatile QueryState state;
 
     /**
      * Constructs a Planner with a given set of board games.
@@ -25,8 +62,90 @@ public class Planner implements IPlanner {
      * @param games The set of board games to be managed.
      */
     public Planner(Set<BoardGame> games) {
-        this.masterList = games;
-        this.filteredGames = games.stream();
+        this(GameCatalog.of(games));
+    }
+
+    /**
+     * Constructs a Planner over an already built catalog.
+     *
+     * @param catalog The catalog of board games to be managed.
+     */
+    public Planner(GameCatalog catalog) {
+        this(catalog, QueryExecutor.shared());
+    }
+
+    /**
+     * Constructs a Planner over a catalog that runs its queries on an executor.
+     *
+     * @param catalog The catalog of board games to be managed.
+     * @param executor The executor for the row loops of queries.
+     */
+    Planner(GameCatalog catalog, QueryExecutor executor) {
+        this(catalog, executor, ResultCache.forCatalog(catalog));
+    }
+
+    /**
+     * Constructs a Planner that shares an executor and a result cache with other sessions.
+     *
+     * @param catalog The catalog of board games to be managed.
+     * @param executor The executor for the row loops of queries.
+     * @param cache The result cache of the sessions.
+     */
+    private Planner(GameCatalog catalog, QueryExecutor executor, ResultCache cache) {
+        this.catalog = catalog;
+        this.executor = executor;
+        this.cache = cache;
+        this.state = QueryState.initial(catalog);
+    }
+
+    /**
+     * Creates a new session over the same catalog, with no filter applied. The catalog and the
+     * result cache are shared, not copied.
+     *
+     * @return the new session
+     */
+    public Planner newSession() {
+        return new Planner(cache.catalog(), executor, cache);
+    }
+
+    /**
+     * Get the current catalog of the sessions sharing this session's result cache, which new
+     * sessions are created over.
+     *
+     * @return The current catalog.
+     */
+    public GameCatalog catalog() {
+        return cache.catalog();
+    }
+
+    /**
+     * Replaces the catalog of this session and of every session sharing its result cache, and
+     * drops every cached result. Each session resets its filters on its next query, since they
+     * selected rows of the old catalog.
+     *
+     * @param reloaded The reloaded catalog.
+     */
+    public void reload(GameCatalog reloaded) {
+        cache.invalidate(reloaded);
+        followReload();
+    }
+
+    /**
+     * Get the number of queries answered from the result cache since the catalog was loaded.
+     *
+     * @return The hit count.
+     */
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * Get the number of queries that were not in the result cache since the catalog was loaded.
+     *
+     * @return The miss count.
+     */
+    public long cacheMisses() {
+        return cache.misses();
     }
 
     /**
@@ -37,8 +156,7 @@ public class Planner implements IPlanner {
      */
     @Override
     public Stream<BoardGame> filter(String filter) {
-        filteredGames = Filters.applyFilter(filter, masterList.stream());
-        return filteredGames;
+        return toGames(query(filter, "", null));
     }
 
     /**
@@ -63,9 +181,238 @@ public class Planner implements IPlanner {
      */
     @Override
     public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending) {
-        Stream<BoardGame> filteredStream = Filters.applyFilter(filter, masterList.stream());
-        return ascending ? filteredStream.sorted(Sorts.getComparator(sortOn))
-                : filteredStream.sorted(Sorts.getComparator(sortOn).reversed());
+        return filter(filter, sortOn, ascending, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Filters the games and returns only the first limit games in the sorted order.
+     * <p>
+     * When the filter keeps a large part of the catalog, the presorted permutation of the sort
+     * column is walked and the matching rows are taken in order, with no comparison sort at all.
+     * When only a few rows match, they are sorted directly, keeping the best limit rows in a
+     * bounded heap. Either way only the returned games are built.
+     *
+     * @param filter The filter criteria (e.g., "rating >= 7").
+     * @param sortOn The attribute to sort by (e.g., "year").
+     * @param ascending True if sorting should be in ascending order, false otherwise.
+     * @param limit The maximum number of games to return.
+     * @return A stream of at most limit board games, sorted in the specified order.
+     */
+    @Override
+    public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending, int limit) {
+        String order = sortOn.getColumnName() + (ascending ? " asc" : " desc")
+                + (limit == Integer.MAX_VALUE ? "" : " limit " + limit);
+        return toGames(query(filter, order, rows -> sortedRows(rows, sortOn, ascending, limit)));
+    }
+
+    /**
+     * Filters the games and sorts them on several columns.
+     * <p>
+     * A single key uses the column's presorted permutation like
+     * {@link #filter(String, GameData, boolean)}. More keys are replaced by their dense ranks,
+     * packed into long keys and sorted with an LSD radix sort (see {@link RadixSort}), in time
+     * linear in the number of matching games.
+     *
+     * @param filter The filter criteria (e.g., "rating >= 7").
+     * @param sortOn The sort keys, most significant first.
+     * @return A stream of the matching board games, sorted.
+     * @throws IllegalArgumentException if no sort key is given
+     */
+    @Override
+    public Stream<BoardGame> filter(String filter, List<SortKey> sortOn) {
+        if (sortOn.isEmpty()) {
+            throw new IllegalArgumentException("No sort column given.");
+        }
+        if (sortOn.size() == 1) {
+            return filter(filter, sortOn.get(0).getColumn(), sortOn.get(0).isAscending());
+        }
+        String order = sortOn.stream().map(SortKey::toString).collect(Collectors.joining(","));
+        return toGames(query(filter, order,
+                rows -> RadixSort.sort(catalog, rows.toArray(), sortOn)));
+    }
+
+    /**
+     * Returns one page of the sorted result, after the position of a cursor.
+     * <p>
+     * The cursor holds the sort key and row of the last game of the previous page. The next
+     * page starts with a binary search for that position in the column's presorted permutation,
+     * or, when few rows match, with a bounded heap over the matching rows that come after it, so
+     * the cost of a page does not grow with its number.
+     *
+     * @param filter The filter criteria (e.g., "rating >= 7").
+     * @param sortOn The attribute to sort by (e.g., "year").
+     * @param ascending True if sorting should be in ascending order, false otherwise.
+     * @param pageSize The maximum number of games on the page.
+     * @param cursor The cursor of the previous page, or null for the first page.
+     * @return The page.
+     * @throws IllegalArgumentException if the page size is not positive, the column cannot be
+     *                                  sorted on or the cursor is invalid
+     */
+    @Override
+    public Page page(String filter, GameData sortOn, boolean ascending, int pageSize,
+                     String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor, sortOn, ascending);
+        // refining moves the session to a reloaded catalog, whose columns the order must read
+        RowBitmap rows = refine(filter).rows;
+        RowOrder order = new RowOrder(catalog, sortOn, ascending);
+        int[] next = rowsAfter(rows, order, sortOn, ascending, after, pageSize + 1);
+        if (next.length <= pageSize) {
+            return new Page(toGames(next).collect(Collectors.toList()), null);
+        }
+        int[] page = Arrays.copyOf(next, pageSize);
+        String nextCursor = PageCursor.after(catalog, sortOn, ascending, page[pageSize - 1])
+                .encode();
+        return new Page(toGames(page).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Finds the first rows of a bitmap that come after a cursor in sorted order.
+     *
+     * @param rows The rows to select from.
+     * @param order The sort order.
+     * @param sortOn The sort column.
+     * @param ascending True for ascending order.
+     * @param after The cursor, or null to start at the beginning.
+     * @param limit The maximum number of rows to return.
+     * @return The rows in sorted order.
+     */
+    private int[] rowsAfter(RowBitmap rows, RowOrder order, GameData sortOn, boolean ascending,
+                            PageCursor after, int limit) {
+        int[] permutation = catalog.index().order(sortOn, ascending);
+        int start = 0;
+        int end = permutation.length;
+        while (after != null && start < end) {
+            int mid = (start + end) >>> 1;
+            if (order.isAfter(permutation[mid], after)) {
+                end = mid;
+            } else {
+                start = mid + 1;
+            }
+        }
+        int matches = rows.cardinality();
+        int remaining = permutation.length - start;
+        long walkCost = matches == 0 ? 0 : (long) remaining * limit / matches + remaining / 64;
+        long heapCost = (long) matches * (32 - Integer.numberOfLeadingZeros(limit));
+        if (walkCost <= heapCost) {
+            long[] words = rows.toWords(permutation.length);
+            int[] out = new int[Math.min(limit, matches)];
+            int count = 0;
+            for (int i = start; i < permutation.length && count < out.length; i++) {
+                int row = permutation[i];
+                if ((words[row >>> 6] & (1L << row)) != 0) {
+                    out[count++] = row;
+                }
+            }
+            return Arrays.copyOf(out, count);
+        }
+        int[] candidates = rows.toArray();
+        int count = 0;
+        for (int row : candidates) {
+            if (after == null || order.isAfter(row, after)) {
+                candidates[count++] = row;
+            }
+        }
+        return executor.first(order, Arrays.copyOf(candidates, count), limit);
+    }
+
+    /**
+     * Completes a partly typed game name: the best games of the whole collection whose name
+     * starts with the prefix, ignoring case. Filters do not apply.
+     *
+     * @param prefix The start of the name.
+     * @param rankBy GameData.RATING for the highest rated games first, GameData.RANK for the
+     *               best ranked games first (unranked games last).
+     * @param limit The maximum number of games to return.
+     * @return The games, best first.
+     * @throws IllegalArgumentException if rankBy is not RATING or RANK
+     */
+    public List<BoardGame> complete(String prefix, GameData rankBy, int limit) {
+        followReload();
+        return toGames(catalog.nameTrie().complete(prefix, rankBy, limit))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Narrows the session's current result by a filter and makes it the new current result.
+     *
+     * @param filter The filter criteria (e.g., "rating >= 7").
+     * @return The new state.
+     */
+    private QueryState refine(String filter) {
+        followReload();
+        QueryState next = state.refine(catalog, FilterCompiler.compile(filter), executor);
+        state = next;
+        return next;
+    }
+
+    /**
+     * Narrows the session's current result by a filter and returns its rows in order, from the
+     * result cache if any session ran the same query on the catalog before.
+     *
+     * @param filter The filter criteria (e.g., "rating >= 7").
+     * @param order The sort order as text, empty for row order.
+     * @param sort Sorts the rows of the result, or null to keep row order.
+     * @return The rows in order.
+     */
+    private int[] query(String filter, String order, Function<RowBitmap, int[]> sort) {
+        followReload();
+        GameCatalog current = catalog;
+        QueryState before = state;
+        CompiledFilter more = FilterCompiler.compile(filter);
+        CompiledFilter combined = before.filter.and(more);
+        String key = ResultCache.key(combined, order);
+        ResultCache.Result cached = cache.get(current, key);
+        if (cached != null) {
+            if (combined != before.filter) {
+                state = new QueryState(combined, cached.matches());
+            }
+            return cached.rows();
+        }
+        QueryState next = before.refine(current, more, executor);
+        state = next;
+        int[] rows = sort == null ? null : sort.apply(next.rows);
+        cache.put(current, key, new ResultCache.Result(next.rows, rows));
+        return rows == null ? next.rows.toArray() : rows;
+    }
+
+    /**
+     * Moves the session to the current catalog of its result cache if the catalog was reloaded,
+     * dropping the session's filters.
+     */
+    private void followReload() {
+        GameCatalog current = cache.catalog();
+        if (current != catalog) {
+            catalog = current;
+            state = QueryState.initial(current);
+        }
+    }
+
+    /**
+     * Sorts the first rows of a bitmap, picking the cheaper of walking the column's permutation
+     * or sorting the rows with a bounded heap.
+     *
+     * @param rows The rows to sort.
+     * @param sortOn The column to sort by.
+     * @param ascending True for ascending order.
+     * @param limit The maximum number of rows to return.
+     * @return The first rows in sorted order.
+     */
+    private int[] sortedRows(RowBitmap rows, GameData sortOn, boolean ascending, int limit) {
+        int matches = rows.cardinality();
+        int k = Math.min(limit, matches);
+        if (k <= 0) {
+            return new int[0];
+        }
+        // the walk stops after about k / matches of the permutation, the heap costs log k per row
+        long walkCost = (long) catalog.size() * k / matches + catalog.size() / 64;
+        long heapCost = (long) matches * (32 - Integer.numberOfLeadingZeros(k));
+        if (catalog.index().isSortable(sortOn) && walkCost <= heapCost) {
+            return catalog.index().firstInOrder(rows, sortOn, ascending, k);
+        }
+        return executor.first(new RowOrder(catalog, sortOn, ascending), rows.toArray(), k);
     }
 
     /**
@@ -73,6 +420,90 @@ public class Planner implements IPlanner {
      */
     @Override
     public void reset() {
-        filteredGames = masterList.stream();
+        followReload();
+        state = QueryState.initial(catalog);
+    }
+
+    /**
+     * Builds the games for a set of catalog rows.
+     *
+     * @param rows The rows to build.
+     * @return A stream of the games at those rows.
+     */
+    private Stream<BoardGame> toGames(int[] rows) {
+        return Arrays.stream(rows).mapToObj(catalog::game);
+    }
+
+    /**
+     * An immutable snapshot of a session's query: the filters applied so far, combined, and the
+     * rows they select.
+     */
+    private static final class QueryState {
+        /**
+         * A result smaller than the catalog size divided by this is narrowed by checking its own
+         * rows, instead of intersecting it with whole-catalog condition bitmaps.
+         */
+        private static final int SCAN_RATIO = 16;
+
+        /**
+         * The filter of the query.
+         */
+        private final CompiledFilter filter;
+        /**
+         * The rows that pass the filter.
+         */
+        private final RowBitmap rows;
+
+        /**
+         * Constructs a query state.
+         *
+         * @param filter the filter
+         * @param rows   the rows that pass it
+         */
+        private QueryState(CompiledFilter filter, RowBitmap rows) {
+            this.filter = filter;
+            this.rows = rows;
+        }
+
+        /**
+         * Get the state of a session without a filter.
+         *
+         * @param catalog the catalog
+         * @return a state selecting every row
+         */
+        static QueryState initial(GameCatalog catalog) {
+            return of(catalog, CompiledFilter.ALL);
+        }
+
+        /**
+         * Evaluates a filter into a query state.
+         *
+         * @param catalog the catalog
+         * @param filter  the filter
+         * @return the state holding the filter and its rows
+         */
+        static QueryState of(GameCatalog catalog, CompiledFilter filter) {
+            return new QueryState(filter, catalog.bitmaps().evaluate(filter));
+        }
+
+        /**
+         * Narrows this state by more conditions.
+         *
+         * @param catalog  the catalog
+         * @param more     the conditions to add
+         * @param executor the executor for checking rows
+         * @return the narrowed state, or this state if the conditions are already applied
+         */
+        QueryState refine(GameCatalog catalog, CompiledFilter more, QueryExecutor executor) {
+            CompiledFilter combined = filter.and(more);
+            if (combined == filter) {
+                return this;
+            }
+            if ((long) rows.cardinality() * SCAN_RATIO >= catalog.size()) {
+                return new QueryState(combined, rows.and(catalog.bitmaps().evaluate(more)));
+            }
+            int[] kept = executor.filter(rows.toArray(), more.bind(catalog));
+            return new QueryState(combined, RowBitmap.of(kept, kept.length));
+        }
     }
 }
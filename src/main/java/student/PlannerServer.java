@@ -0,0 +1,667 @@
+package student;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Serves the planner over HTTP, with JSON responses.
+ * <p>
+ * Every client names its session with a {@code session} query parameter; a session is created
+ * on first use and holds its own {@link Planner} (sharing the server's catalog and query result
+ * cache) and {@link GameList}. {@link #reload(GameCatalog)} serves a new catalog and ends every
+ * session. Endpoints:
+ * <ul>
+ * <li>{@code GET /games?filter=&sort=&order=asc|desc&limit=} - filters the session's current
+ * result (progressively, like the console) and streams the matching games</li>
+ * <li>{@code GET /page?filter=&sort=&order=&size=&cursor=} - one page of the sorted result, as
+ * {@code {"games": [...], "next": cursor}}; pass next back as cursor for the following page</li>
+ * <li>{@code GET /complete?prefix=&by=rating|rank&limit=} - the best games whose name starts
+ * with the prefix, for type-ahead</li>
+ * <li>{@code POST /reset} - removes the session's filters</li>
+ * <li>{@code GET /list} - the names in the session's game list</li>
+ * <li>{@code POST /list/add?games=} and {@code POST /list/remove?games=} - change the list, with
+ * the same names, positions, ranges and "all" as the console</li>
+ * <li>{@code POST /list/clear} - empties the list</li>
+ * <li>{@code DELETE /session} - drops the session</li>
+ * </ul>
+ * Game results are written as they are produced, with chunked transfer encoding, so large
+ * results never sit in memory as one response. Connections are kept alive between requests.
+ * <p>
+ * The server listens on the loopback interface unless given another host. Sessions unused for
+ * 30 minutes are dropped when new sessions are created, and a request that would create a
+ * session past the maximum of 10,000 is answered with 503, so clients cannot grow the heap by
+ * inventing session ids.
+ * <p>
+ * Requests run on virtual threads when the JDK has them (21 and later), and on a cached thread
+ * pool otherwise.
+ */
+public final class PlannerServer {
+    /**
+     * Number of connections waiting to be accepted.
+     */
+    private static final int BACKLOG = 1024;
+    /**
+     * Default maximum number of sessions.
+     */
+    static final int DEFAULT_MAX_SESSIONS = 10_000;
+    /**
+     * Default time after which an unused session is dropped, in milliseconds.
+     */
+    static final long DEFAULT_SESSION_IDLE_MILLIS = 30 * 60 * 1000L;
+
+    /**
+     * The planner every session is created from, so all sessions share its result cache.
+     */
+    private final Planner planner;
+    /**
+     * Sessions by id.
+     */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    /**
+     * Maximum number of sessions.
+     */
+    private final int maxSessions;
+    /**
+     * Time after which an unused session is dropped, in milliseconds.
+     */
+    private final long sessionIdleMillis;
+    /**
+     * When unused sessions were last dropped, in milliseconds.
+     */
+    private volatile long lastExpiry = System.currentTimeMillis();
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+    /**
+     * Runs the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a server on the loopback interface; call {@link #start()} to accept requests.
+     *
+     * @param catalog the catalog to serve
+     * @param port    the port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public PlannerServer(GameCatalog catalog, int port) throws IOException {
+        this(catalog, null, port);
+    }
+
+    /**
+     * Constructs a server; call {@link #start()} to accept requests.
+     *
+     * @param catalog the catalog to serve
+     * @param host    the host name or address to listen on, null for the loopback interface
+     * @param port    the port to listen on, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public PlannerServer(GameCatalog catalog, String host, int port) throws IOException {
+        this(catalog, host, port, DEFAULT_MAX_SESSIONS, DEFAULT_SESSION_IDLE_MILLIS);
+    }
+
+    /**
+     * Constructs a server with session limits.
+     *
+     * @param catalog           the catalog to serve
+     * @param host              the host to listen on, null for the loopback interface
+     * @param port              the port to listen on, 0 for any free port
+     * @param maxSessions       maximum number of sessions
+     * @param sessionIdleMillis time after which an unused session is dropped, in milliseconds
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    PlannerServer(GameCatalog catalog, String host, int port, int maxSessions,
+                  long sessionIdleMillis) throws IOException {
+        if (maxSessions < 1 || sessionIdleMillis < 1) {
+            throw new IllegalArgumentException("Invalid session limits: " + maxSessions + ", "
+                    + sessionIdleMillis);
+        }
+        this.planner = new Planner(catalog);
+        this.maxSessions = maxSessions;
+        this.sessionIdleMillis = sessionIdleMillis;
+        InetSocketAddress address = host == null
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(host, port);
+        if (address.isUnresolved()) {
+            throw new IOException("Unknown host: " + host);
+        }
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/games", this::handleGames);
+        server.createContext("/page", this::handlePage);
+        server.createContext("/complete", this::handleComplete);
+        server.createContext("/reset", this::handleReset);
+        server.createContext("/list", this::handleList);
+        server.createContext("/session", this::handleSession);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting at most a second for running requests.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Serves a reloaded catalog. Every session ends, since its game list holds rows of the old
+     * catalog; clients get a new session over the new catalog on their next request.
+     *
+     * @param reloaded the reloaded catalog
+     */
+    public void reload(GameCatalog reloaded) {
+        planner.reload(reloaded);
+        sessions.clear();
+    }
+
+    /**
+     * Get the port the server listens on.
+     *
+     * @return the port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Creates a virtual thread per task executor if the JDK has one, a cached pool otherwise.
+     *
+     * @return the executor
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Handles {@code /games}.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handleGames(HttpExchange exchange) throws IOException {
+        if (!expectMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, String> params = params(exchange);
+        Session session = session(exchange, params);
+        if (session == null) {
+            return;
+        }
+        String filter = params.getOrDefault("filter", "");
+        Stream<BoardGame> games;
+        try {
+            String sort = params.get("sort");
+            boolean ascending = !"desc".equalsIgnoreCase(params.get("order"));
+            int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit"))
+                    : Integer.MAX_VALUE;
+            if (limit < 0) {
+                throw new IllegalArgumentException("Invalid limit: " + limit);
+            }
+            GameData sortOn = sort == null ? null : GameData.fromString(sort);
+            // the session's filters narrow one after the other, so its queries take turns
+            synchronized (session) {
+                games = sortOn == null ? session.planner.filter(filter)
+                        : session.planner.filter(filter, sortOn, ascending, limit);
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            out.write('[');
+            Iterator<BoardGame> it = games.iterator();
+            while (it.hasNext()) {
+                writeGame(out, it.next());
+                if (it.hasNext()) {
+                    out.write(',');
+                }
+            }
+            out.write(']');
+        }
+    }
+
+    /**
+     * Handles {@code /page}.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handlePage(HttpExchange exchange) throws IOException {
+        if (!expectMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, String> params = params(exchange);
+        Session session = session(exchange, params);
+        if (session == null) {
+            return;
+        }
+        Page page;
+        try {
+            GameData sortOn = GameData.fromString(params.getOrDefault("sort", "name"));
+            boolean ascending = !"desc".equalsIgnoreCase(params.get("order"));
+            int size = Integer.parseInt(params.getOrDefault("size", "20"));
+            synchronized (session) {
+                page = session.planner.page(params.getOrDefault("filter", ""), sortOn,
+                        ascending, size, params.get("cursor"));
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        StringBuilder json = new StringBuilder("{\"games\":").append(toJson(page.getGames()))
+                .append(",\"next\":");
+        if (page.hasNext()) {
+            quote(json, page.getNextCursor());
+        } else {
+            json.append("null");
+        }
+        sendJson(exchange, 200, json.append('}').toString());
+    }
+
+    /**
+     * Handles {@code /complete}.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handleComplete(HttpExchange exchange) throws IOException {
+        if (!expectMethod(exchange, "GET")) {
+            return;
+        }
+        Map<String, String> params = params(exchange);
+        Session session = session(exchange, params);
+        if (session == null) {
+            return;
+        }
+        List<BoardGame> games;
+        try {
+            GameData rankBy = GameData.fromString(params.getOrDefault("by", "rating"));
+            int limit = Integer.parseInt(params.getOrDefault("limit", "10"));
+            synchronized (session) {
+                games = session.planner.complete(params.getOrDefault("prefix", ""), rankBy,
+                        limit);
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        sendJson(exchange, 200, toJson(games));
+    }
+
+    /**
+     * Handles {@code /reset}.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handleReset(HttpExchange exchange) throws IOException {
+        if (!expectMethod(exchange, "POST")) {
+            return;
+        }
+        Session session = session(exchange, params(exchange));
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            session.planner.reset();
+        }
+        sendJson(exchange, 200, "{\"ok\":true}");
+    }
+
+    /**
+     * Handles {@code /list} and its sub paths.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handleList(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String action = path.startsWith("/list/") ? path.substring("/list/".length()) : "";
+        if (!path.equals("/list") && action.isEmpty()) {
+            sendError(exchange, 404, "Unknown path: " + path);
+            return;
+        }
+        if (!expectMethod(exchange, action.isEmpty() ? "GET" : "POST")) {
+            return;
+        }
+        Map<String, String> params = params(exchange);
+        Session session = session(exchange, params);
+        if (session == null) {
+            return;
+        }
+        String games = params.getOrDefault("games", "");
+        synchronized (session) {
+            try {
+                switch (action) {
+                    case "":
+                        break;
+                    case "add":
+                        session.list.addToList(games, session.planner.filter(""));
+                        break;
+                    case "remove":
+                        session.list.removeFromList(games);
+                        break;
+                    case "clear":
+                        session.list.clear();
+                        break;
+                    default:
+                        sendError(exchange, 404, "Unknown list action: " + action);
+                        return;
+                }
+            } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            StringBuilder json = new StringBuilder("[");
+            if (session.list.count() > 0) {
+                for (String name : session.list.getGameNames()) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    quote(json, name);
+                }
+            }
+            sendJson(exchange, 200, json.append(']').toString());
+        }
+    }
+
+    /**
+     * Handles {@code /session}.
+     *
+     * @param exchange the request
+     * @throws IOException if the response cannot be written
+     */
+    private void handleSession(HttpExchange exchange) throws IOException {
+        if (!expectMethod(exchange, "DELETE")) {
+            return;
+        }
+        String id = params(exchange).get("session");
+        boolean removed = id != null && sessions.remove(id) != null;
+        sendJson(exchange, 200, "{\"removed\":" + removed + "}");
+    }
+
+    /**
+     * Get the session a request names, creating it on first use. Requests without a session
+     * parameter share the default session "". Answers 503 if the session would be new and the
+     * maximum number of sessions is reached even after dropping unused ones.
+     *
+     * @param exchange the request
+     * @param params   the query parameters
+     * @return the session, or null if the request was rejected
+     * @throws IOException if the response cannot be written
+     */
+    private Session session(HttpExchange exchange, Map<String, String> params)
+            throws IOException {
+        String id = params.getOrDefault("session", "");
+        long now = System.currentTimeMillis();
+        Session session = sessions.get(id);
+        if (session == null) {
+            if (sessions.size() >= maxSessions || now - lastExpiry >= sessionIdleMillis / 4) {
+                expireSessions(now);
+            }
+            // concurrent requests may pass this check together, so the cap is approximate
+            if (sessions.size() >= maxSessions) {
+                sendError(exchange, 503, "Too many sessions.");
+                return null;
+            }
+            session = sessions.computeIfAbsent(id,
+                key -> {
+                    Planner sessionPlanner = planner.newSession();
+                    return new Session(sessionPlanner,
+                            new GameList(sessionPlanner.catalog()));
+                });
+        }
+        session.lastUsed = now;
+        return session;
+    }
+
+    /**
+     * Drops the sessions that have not been used for the idle time.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void expireSessions(long now) {
+        lastExpiry = now;
+        sessions.values().removeIf(session -> now - session.lastUsed >= sessionIdleMillis);
+    }
+
+    /**
+     * Checks the request method, answering 405 if it is wrong. Consumes the request body, so
+     * the connection can be reused.
+     *
+     * @param exchange the request
+     * @param method   the expected method
+     * @return true if the method matches
+     * @throws IOException if the response cannot be written
+     */
+    private static boolean expectMethod(HttpExchange exchange, String method) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        if (method.equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        sendError(exchange, 405, "Use " + method);
+        return false;
+    }
+
+    /**
+     * Parses the query parameters of a request.
+     *
+     * @param exchange the request
+     * @return the decoded parameters; a repeated name keeps its last value
+     */
+    private static Map<String, String> params(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Sends a complete JSON response.
+     *
+     * @param exchange the request
+     * @param status   the status code
+     * @param json     the body
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendJson(HttpExchange exchange, int status, String json)
+            throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Sends an error as {@code {"error": message}}.
+     *
+     * @param exchange the request
+     * @param status   the status code
+     * @param message  the error message
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message)
+            throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        quote(json, message == null ? "" : message);
+        sendJson(exchange, status, json.append('}').toString());
+    }
+
+    /**
+     * Converts games to a JSON array.
+     *
+     * @param games the games
+     * @return the array
+     * @throws IOException never, the games are written to memory
+     */
+    private static String toJson(List<BoardGame> games) throws IOException {
+        StringWriter json = new StringWriter();
+        json.write('[');
+        for (int i = 0; i < games.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            writeGame(json, games.get(i));
+        }
+        json.write(']');
+        return json.toString();
+    }
+
+    /**
+     * Writes a game as a JSON object.
+     *
+     * @param out  the writer
+     * @param game the game
+     * @throws IOException if writing fails
+     */
+    private static void writeGame(Writer out, BoardGame game) throws IOException {
+        StringBuilder json = new StringBuilder(160).append("{\"name\":");
+        quote(json, game.getName());
+        json.append(",\"id\":").append(game.getId())
+                .append(",\"minPlayers\":").append(game.getMinPlayers())
+                .append(",\"maxPlayers\":").append(game.getMaxPlayers())
+                .append(",\"minPlayTime\":").append(game.getMinPlayTime())
+                .append(",\"maxPlayTime\":").append(game.getMaxPlayTime())
+                .append(",\"difficulty\":");
+        number(json, game.getDifficulty());
+        json.append(",\"rank\":").append(game.getRank()).append(",\"rating\":");
+        number(json, game.getRating());
+        json.append(",\"year\":").append(game.getYearPublished()).append('}');
+        out.append(json);
+    }
+
+    /**
+     * Appends a double as a JSON number, or null for NaN and infinities, which JSON cannot
+     * represent.
+     *
+     * @param json  the builder
+     * @param value the value
+     */
+    private static void number(StringBuilder json, double value) {
+        if (Double.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append("null");
+        }
+    }
+
+    /**
+     * Appends a string as a quoted JSON string.
+     *
+     * @param json the builder
+     * @param text the string
+     */
+    private static void quote(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * State of one client session.
+     */
+    private static final class Session {
+        /**
+         * The session's planner, over the shared catalog; used under the session's lock.
+         */
+        private final Planner planner;
+        /**
+         * The session's game list; changed under the session's lock.
+         */
+        private final GameList list;
+        /**
+         * When the session was last used, in milliseconds.
+         */
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        /**
+         * Constructs a session.
+         *
+         * @param planner the planner
+         * @param list    the game list
+         */
+        private Session(Planner planner, GameList list) {
+            this.planner = planner;
+            this.list = list;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the row loops of a query either on the calling thread or split by row range over a
+ * fork-join pool, depending on how many rows the loop has to look at.
+ * <p>
+ * Small loops stay on the calling thread, since handing work to other threads costs more than
+ * it saves below some tens of thousands of rows; most queries of a session only look at the rows
+ * left by its previous filters and never leave this path. Large loops are cut into one range per
+ * pool thread. Ranges of a scan start at multiples of 64 rows, so every range writes its own match
+ * words.
+ * <p>
+ * The pool is shared by every session, and its size caps the threads all queries use together,
+ * so one heavy query cannot take every core from the others. The shared executor's size comes
+ * from the {@code bgarena.parallelism} system property, and defaults to the number of cores when
+ * the property is missing or is not a positive number. The shared executor lives as long as the
+ * program; other executors are shut down when no longer needed.
+ */
+final class QueryExecutor {
+    /**
+     * System property with the maximum number of threads of the shared executor.
+     */
+    static final String PARALLELISM_PROPERTY = "bgarena.parallelism";
+    /**
+     * Default number of rows a loop must look at before it is split.
+     */
+    static final int DEFAULT_PARALLEL_ROWS = 1 << 16;
+
+    /**
+     * The executor used by planners and condition bitmaps.
+     */
+    private static final QueryExecutor SHARED = new QueryExecutor(
+            parallelism(System.getProperty(PARALLELISM_PROPERTY),
+                    Runtime.getRuntime().availableProcessors()),
+            DEFAULT_PARALLEL_ROWS);
+
+    /**
+     * Maximum number of threads a loop is split over.
+     */
+    private final int parallelism;
+    /**
+     * Number of rows a loop must look at before it is split.
+     */
+    private final int parallelRows;
+    /**
+     * The pool, or null when the parallelism is 1.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an executor.
+     *
+     * @param parallelism  maximum number of threads, 1 to always run on the calling thread
+     * @param parallelRows number of rows a loop must look at before it is split
+     * @throws IllegalArgumentException if the parallelism or row count is not positive
+     */
+    QueryExecutor(int parallelism, int parallelRows) {
+        if (parallelism < 1 || parallelRows < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.parallelRows = parallelRows;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Reads a configured number of threads, falling back to a default with a message on stderr
+     * if it is not a positive number.
+     *
+     * @param value        the configured value, or null if there is none
+     * @param defaultValue the number of threads to use otherwise
+     * @return the number of threads
+     */
+    static int parallelism(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parallelism = Integer.parseInt(value.trim());
+            if (parallelism >= 1) {
+                return parallelism;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below, like values that are too small
+        }
+        System.err.println("Ignoring " + PARALLELISM_PROPERTY + "=" + value
+                + ", using the default of " + defaultValue + ".");
+        return defaultValue;
+    }
+
+    /**
+     * Get the executor shared by planners and condition bitmaps.
+     *
+     * @return the shared executor
+     */
+    static QueryExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the maximum number of threads a loop is split over.
+     *
+     * @return the parallelism
+     */
+    int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Shuts the pool down once the loops already running have finished. Loops started afterwards
+     * fail, except those small enough to run on the calling thread.
+     */
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks if a loop over some rows is split.
+     *
+     * @param rows number of rows the loop looks at
+     * @return true if it runs on the pool
+     */
+    boolean isParallel(int rows) {
+        return pool != null && rows >= parallelRows;
+    }
+
+    /**
+     * Runs a task over the rows [0, size), in ranges that start at multiples of 64.
+     *
+     * @param size number of rows
+     * @param task the task, run once per range
+     */
+    void forEachRange(int size, RangeTask task) {
+        if (!isParallel(size)) {
+            task.run(0, size);
+            return;
+        }
+        int chunk = ((size + parallelism - 1) / parallelism + 63) & ~63;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < size; from += chunk) {
+            int start = from;
+            int end = Math.min(size, from + chunk);
+            tasks.add(() -> {
+                task.run(start, end);
+                return null;
+            });
+        }
+        invokeAll(tasks);
+    }
+
+    /**
+     * Keeps the rows that match a predicate, in their order.
+     *
+     * @param rows    the rows, overwritten
+     * @param matches the predicate
+     * @return the matching rows
+     */
+    int[] filter(int[] rows, IntPredicate matches) {
+        if (!isParallel(rows.length)) {
+            return Arrays.copyOf(rows, keep(rows, 0, rows.length, matches));
+        }
+        int chunk = (rows.length + parallelism - 1) / parallelism;
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int from = 0; from < rows.length; from += chunk) {
+            int start = from;
+            int end = Math.min(rows.length, from + chunk);
+            tasks.add(() -> keep(rows, start, end, matches) - start);
+        }
+        List<Integer> counts = invokeAll(tasks);
+        int count = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            System.arraycopy(rows, i * chunk, rows, count, counts.get(i));
+            count += counts.get(i);
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Selects the first k rows in an order. Split loops select the first k rows of every range
+     * and merge the sorted ranges.
+     *
+     * @param order the order
+     * @param rows  the rows to select from
+     * @param k     the number of rows to keep
+     * @return the first k rows (or all rows if there are fewer), sorted
+     */
+    int[] first(RowOrder order, int[] rows, int k) {
+        if (!isParallel(rows.length)) {
+            return order.first(rows, k);
+        }
+        int chunk = (rows.length + parallelism - 1) / parallelism;
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int from = 0; from < rows.length; from += chunk) {
+            int[] range = Arrays.copyOfRange(rows, from, Math.min(rows.length, from + chunk));
+            tasks.add(() -> order.first(range, k));
+        }
+        List<int[]> runs = invokeAll(tasks);
+        int[] merged = runs.get(0);
+        for (int i = 1; i < runs.size(); i++) {
+            merged = merge(order, merged, runs.get(i), k);
+        }
+        return merged;
+    }
+
+    /**
+     * Merges two sorted runs, keeping the first k rows.
+     *
+     * @param order the order
+     * @param a     a sorted run
+     * @param b     another sorted run
+     * @param k     the number of rows to keep
+     * @return the first k rows of both runs, sorted
+     */
+    private static int[] merge(RowOrder order, int[] a, int[] b, int k) {
+        int[] out = new int[Math.min(k, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        for (int n = 0; n < out.length; n++) {
+            if (j == b.length || (i < a.length && order.compare(a[i], b[j]) <= 0)) {
+                out[n] = a[i++];
+            } else {
+                out[n] = b[j++];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Moves the matching rows of a range to its start.
+     *
+     * @param rows    the rows
+     * @param from    start of the range
+     * @param to      end of the range, exclusive
+     * @param matches the predicate
+     * @return the end of the matching rows
+     */
+    private static int keep(int[] rows, int from, int to, IntPredicate matches) {
+        int count = from;
+        for (int i = from; i < to; i++) {
+            if (matches.test(rows[i])) {
+                rows[count++] = rows[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs tasks on the pool and waits for all of them.
+     *
+     * @param tasks the tasks
+     * @param <T>   result type
+     * @return the results, in task order
+     */
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Query interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * A loop body over a range of rows.
+     */
+    @FunctionalInterface
+    interface RangeTask {
+        /**
+         * Runs over a range of rows.
+         *
+         * @param from first row
+         * @param to   end row, exclusive
+         */
+        void run(int from, int to);
+    }
+}
@@ -0,0 +1,137 @@
+package student;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts catalog rows on several columns at once in linear time.
+ * <p>
+ * Every sort key is replaced by the dense rank of the row's value in that column (see
+ * {@link GameIndex#ranks(GameData)}), flipped for descending keys, which only takes the bits
+ * needed to count the column's distinct values. The ranks of consecutive keys are packed into one
+ * long, the first key in the highest bits, so comparing packed longs compares the keys in order.
+ * The rows are then ordered by an LSD radix sort over the packed longs, one stable counting pass
+ * per byte of key bits. Keys that do not fit in one long together are packed into several longs
+ * and sorted from the last long to the first, which stable passes make equivalent to one long key.
+ * <p>
+ * Rows with equal keys keep their input order, so ascending input rows come out with ties by row.
+ */
+final class RadixSort {
+    /**
+     * Bits of the key sorted per counting pass.
+     */
+    private static final int DIGIT_BITS = 8;
+    /**
+     * Number of buckets of a counting pass.
+     */
+    private static final int BUCKETS = 1 << DIGIT_BITS;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RadixSort() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Sorts rows on a list of keys.
+     *
+     * @param catalog the catalog the rows belong to
+     * @param rows    the rows, left unchanged
+     * @param keys    the sort keys, most significant first
+     * @return the rows in sorted order
+     * @throws IllegalArgumentException if a column cannot be sorted on
+     */
+    static int[] sort(GameCatalog catalog, int[] rows, List<SortKey> keys) {
+        int n = keys.size();
+        int[][] ranks = new int[n][];
+        int[] bits = new int[n];
+        int[] highestRank = new int[n];
+        boolean[] descending = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            SortKey key = keys.get(i);
+            ranks[i] = catalog.index().ranks(key.getColumn());
+            int highest = Math.max(0, catalog.index().distinctValues(key.getColumn()) - 1);
+            bits[i] = 32 - Integer.numberOfLeadingZeros(highest);
+            // a descending key sorts highest - rank ascending
+            highestRank[i] = highest;
+            descending[i] = !key.isAscending();
+        }
+
+        int[] sorted = rows.clone();
+        int end = n;
+        while (end > 0) {
+            // the last keys that fit in one long, sorted before the keys in front of them
+            int start = end;
+            int width = 0;
+            while (start > 0 && width + bits[start - 1] <= Long.SIZE) {
+                width += bits[--start];
+            }
+            if (width > 0) {
+                sorted = sortPacked(sorted, ranks, bits, highestRank, descending, start, end,
+                        width);
+            }
+            end = start;
+        }
+        return sorted;
+    }
+
+    /**
+     * Sorts rows on the packed ranks of a run of keys.
+     *
+     * @param rows        the rows, used as scratch space
+     * @param ranks       the ranks of every key
+     * @param bits        the bits of every key
+     * @param highestRank the highest rank of every key
+     * @param descending  true for the keys whose ranks are flipped
+     * @param start       first key of the run
+     * @param end         end of the run, exclusive
+     * @param width       total bits of the run
+     * @return the rows, sorted and stable
+     */
+    private static int[] sortPacked(int[] rows, int[][] ranks, int[] bits, int[] highestRank,
+                                    boolean[] descending, int start, int end, int width) {
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            long key = 0;
+            for (int k = start; k < end; k++) {
+                int rank = ranks[k][rows[i]];
+                key = (key << bits[k]) | (descending[k] ? highestRank[k] - rank : rank);
+            }
+            packed[i] = key;
+        }
+        int[] rowsOut = new int[rows.length];
+        long[] packedOut = new long[rows.length];
+        int[] counts = new int[BUCKETS];
+        for (int shift = 0; shift < width; shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (long key : packed) {
+                counts[(int) (key >>> shift) & (BUCKETS - 1)]++;
+            }
+            // a pass where every row has the same digit would not move anything
+            if (packed.length == 0
+                    || counts[(int) (packed[0] >>> shift) & (BUCKETS - 1)] == packed.length) {
+                continue;
+            }
+            int total = 0;
+            for (int digit = 0; digit < BUCKETS; digit++) {
+                int count = counts[digit];
+                counts[digit] = total;
+                total += count;
+            }
+            for (int i = 0; i < packed.length; i++) {
+                int digit = (int) (packed[i] >>> shift) & (BUCKETS - 1);
+                int to = counts[digit]++;
+                packedOut[to] = packed[i];
+                rowsOut[to] = rows[i];
+            }
+            long[] swapPacked = packed;
+            packed = packedOut;
+            packedOut = swapPacked;
+            int[] swapRows = rows;
+            rows = rowsOut;
+            rowsOut = swapRows;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,254 @@
+package student;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Query results shared by the {@link Planner} sessions of one catalog, so a query any session
+ * has already run is answered without filtering or sorting again.
+ * <p>
+ * A result is keyed by its canonical filter (the distinct normalized conditions in sorted order,
+ * so the order and repetition of conditions do not matter) together with its sort order, and
+ * holds the rows of the filter as a bitmap plus the sorted row ids. Once their total size passes
+ * a byte capacity, entries used less recently than most are dropped (see {@link SampledCache}).
+ * The capacity defaults to 64 MiB and can be set with the {@code bgarena.resultcache.bytes}
+ * system property.
+ * <p>
+ * The cache also holds the current catalog of its sessions. Reloading the catalog starts a new
+ * generation with an empty cache, so results of the old catalog can neither be found nor added
+ * by queries that were still running on it.
+ */
+final class ResultCache {
+    /**
+     * System property with the capacity in bytes.
+     */
+    static final String CAPACITY_PROPERTY = "bgarena.resultcache.bytes";
+    /**
+     * Default capacity in bytes.
+     */
+    static final long DEFAULT_CAPACITY = 64L << 20;
+    /**
+     * Bytes counted for an entry besides its rows, for the key and the objects around the rows.
+     */
+    private static final long ENTRY_OVERHEAD = 128;
+
+    /**
+     * Maximum total size of the results of a generation, in bytes.
+     */
+    private final long capacity;
+    /**
+     * The current catalog and its results.
+     */
+    private volatile Generation generation;
+
+    /**
+     * Constructs an empty cache for a catalog.
+     *
+     * @param catalog  the catalog
+     * @param capacity maximum total size of the results, in bytes
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    ResultCache(GameCatalog catalog, long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.generation = new Generation(catalog, capacity);
+    }
+
+    /**
+     * Constructs an empty cache for a catalog, with the configured capacity.
+     *
+     * @param catalog the catalog
+     * @return the cache
+     */
+    static ResultCache forCatalog(GameCatalog catalog) {
+        return new ResultCache(catalog, Long.getLong(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Builds the key of a query.
+     *
+     * @param filter the combined filter of the query
+     * @param order  the sort order as text, empty for row order
+     * @return the key
+     */
+    static String key(CompiledFilter filter, String order) {
+        // normalized conditions never hold a line break
+        return filter.getConditions().stream().map(FilterCondition::toString).distinct().sorted()
+                .collect(Collectors.joining(",")) + "\n" + order;
+    }
+
+    /**
+     * Get the current catalog.
+     *
+     * @return the catalog of the current generation
+     */
+    GameCatalog catalog() {
+        return generation.catalog;
+    }
+
+    /**
+     * Looks up a result.
+     *
+     * @param catalog the catalog the query runs on
+     * @param key     the key of the query
+     * @return the result, or null if it is not cached or the catalog has been reloaded
+     */
+    Result get(GameCatalog catalog, String key) {
+        Generation current = generation;
+        if (current.catalog != catalog) {
+            return null;
+        }
+        Result result = current.results.get(key);
+        (result != null ? current.hits : current.misses).increment();
+        return result;
+    }
+
+    /**
+     * Adds a result, unless the catalog has been reloaded since the query started.
+     *
+     * @param catalog the catalog the query ran on
+     * @param key     the key of the query
+     * @param result  the result
+     */
+    void put(GameCatalog catalog, String key, Result result) {
+        Generation current = generation;
+        if (current.catalog == catalog) {
+            current.results.put(key, result);
+        }
+    }
+
+    /**
+     * Drops every result and makes a reloaded catalog the current one. The hit and miss counts
+     * start again from zero.
+     *
+     * @param catalog the new catalog
+     */
+    void invalidate(GameCatalog catalog) {
+        generation = new Generation(catalog, capacity);
+    }
+
+    /**
+     * Get the number of lookups that found a result since the last reload.
+     *
+     * @return the hit count
+     */
+    long hits() {
+        return generation.hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that found nothing since the last reload.
+     *
+     * @return the miss count
+     */
+    long misses() {
+        return generation.misses.sum();
+    }
+
+    /**
+     * Get the number of cached results.
+     *
+     * @return the size
+     */
+    int size() {
+        return generation.results.size();
+    }
+
+    /**
+     * Get the total size of the cached results.
+     *
+     * @return the size in bytes
+     */
+    long sizeInBytes() {
+        return generation.results.weight();
+    }
+
+    /**
+     * The result of one query: the rows of its filter, and the rows it returns in order.
+     */
+    static final class Result {
+        /**
+         * The rows that pass the filter.
+         */
+        private final RowBitmap matches;
+        /**
+         * The returned rows in sorted order, or null for the matches in row order.
+         */
+        private final int[] sorted;
+
+        /**
+         * Constructs a result.
+         *
+         * @param matches the rows that pass the filter
+         * @param sorted  the returned rows in sorted order, or null for the matches in row order
+         */
+        Result(RowBitmap matches, int[] sorted) {
+            this.matches = matches;
+            this.sorted = sorted;
+        }
+
+        /**
+         * Get the rows that pass the filter.
+         *
+         * @return the matches
+         */
+        RowBitmap matches() {
+            return matches;
+        }
+
+        /**
+         * Get the rows the query returns. The array must not be modified.
+         *
+         * @return the rows, in order
+         */
+        int[] rows() {
+            return sorted != null ? sorted : matches.toArray();
+        }
+
+        /**
+         * Get the approximate memory taken by the result. A bitmap shared by the results of
+         * several sort orders is counted for each of them.
+         *
+         * @return the size in bytes
+         */
+        long sizeInBytes() {
+            long rows = sorted == null ? 0 : (long) Integer.BYTES * sorted.length;
+            return ENTRY_OVERHEAD + matches.sizeInBytes() + rows;
+        }
+    }
+
+    /**
+     * A catalog and the results of queries on it.
+     */
+    private static final class Generation {
+        /**
+         * The catalog.
+         */
+        private final GameCatalog catalog;
+        /**
+         * Results by query key.
+         */
+        private final SampledCache<String, Result> results;
+        /**
+         * Number of lookups that found a result, added up only when read.
+         */
+        private final LongAdder hits = new LongAdder();
+        /**
+         * Number of lookups that found nothing.
+         */
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * Constructs an empty generation.
+         *
+         * @param catalog  the catalog
+         * @param capacity maximum total size of the results, in bytes
+         */
+        private Generation(GameCatalog catalog, long capacity) {
+            this.catalog = catalog;
+            this.results = new SampledCache<>(capacity, Result::sizeInBytes);
+        }
+    }
+}
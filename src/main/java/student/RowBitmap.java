@@ -0,0 +1,488 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of catalog rows, organized the way Roaring bitmaps are.
+ * <p>
+ * Rows are split into chunks of 65536 by their upper 16 bits. A chunk with few rows stores the
+ * lower 16 bits of each row in a sorted {@code char[]} (an array container), and a chunk with
+ * more than {@value #ARRAY_LIMIT} rows stores them as a {@code long[1024]} of bits (a bitmap
+ * container). Intersections and differences then work chunk by chunk, mostly as word-level ANDs.
+ */
+public final class RowBitmap {
+    /**
+     * Bitmap with no rows.
+     */
+    public static final RowBitmap EMPTY = new RowBitmap(new int[0], new Object[0], 0);
+
+    /**
+     * Largest number of rows stored in an array container.
+     */
+    static final int ARRAY_LIMIT = 4096;
+    /**
+     * Number of words in a bitmap container.
+     */
+    private static final int CHUNK_WORDS = 1024;
+
+    /**
+     * Upper 16 bits of the rows in each chunk, ascending.
+     */
+    private final int[] keys;
+    /**
+     * Container of each chunk, either a char[] or a long[].
+     */
+    private final Object[] containers;
+    /**
+     * Total number of rows.
+     */
+    private final int cardinality;
+
+    /**
+     * Constructs a bitmap from its chunks.
+     *
+     * @param keys        upper 16 bits of each chunk, ascending
+     * @param containers  container of each chunk, none empty
+     * @param cardinality total number of rows
+     */
+    private RowBitmap(int[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Builds a bitmap from rows in ascending order.
+     *
+     * @param rows  the rows, ascending and without duplicates
+     * @param count number of rows to use from the array
+     * @return the bitmap
+     */
+    public static RowBitmap of(int[] rows, int count) {
+        Builder builder = new Builder();
+        int i = 0;
+        while (i < count) {
+            int key = rows[i] >>> 16;
+            int end = i;
+            while (end < count && rows[end] >>> 16 == key) {
+                end++;
+            }
+            char[] low = new char[end - i];
+            for (int j = i; j < end; j++) {
+                low[j - i] = (char) rows[j];
+            }
+            builder.add(key, low.length <= ARRAY_LIMIT ? low : toWords(low), low.length);
+            i = end;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a bitmap from a plain bit set, where bit {@code row % 64} of word {@code row / 64}
+     * marks a row.
+     *
+     * @param words the bits
+     * @return the bitmap
+     */
+    public static RowBitmap fromWords(long[] words) {
+        Builder builder = new Builder();
+        for (int start = 0; start < words.length; start += CHUNK_WORDS) {
+            long[] chunk = Arrays.copyOfRange(words, start, start + CHUNK_WORDS);
+            int card = cardinality(chunk);
+            if (card > 0) {
+                builder.add(start / CHUNK_WORDS, card <= ARRAY_LIMIT ? toArray(chunk, card) : chunk,
+                        card);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a bitmap holding rows 0 to size - 1.
+     *
+     * @param size number of rows
+     * @return the bitmap
+     */
+    public static RowBitmap range(int size) {
+        long[] words = new long[(size + 63) / 64];
+        Arrays.fill(words, -1L);
+        if (size % 64 != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        return fromWords(words);
+    }
+
+    /**
+     * Get the number of rows in the bitmap.
+     *
+     * @return the cardinality
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Checks if the bitmap holds no rows.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Get the approximate memory taken by the bitmap's keys and containers.
+     *
+     * @return the size in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = (long) Integer.BYTES * keys.length;
+        for (Object container : containers) {
+            if (container instanceof char[]) {
+                bytes += (long) Character.BYTES * ((char[]) container).length;
+            } else {
+                bytes += (long) Long.BYTES * ((long[]) container).length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Checks if a row is in the bitmap.
+     *
+     * @param row the row
+     * @return true if the row is present
+     */
+    public boolean contains(int row) {
+        int i = Arrays.binarySearch(keys, row >>> 16);
+        if (i < 0) {
+            return false;
+        }
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            return (((long[]) container)[(row & 0xFFFF) >>> 6] & (1L << row)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, (char) row) >= 0;
+    }
+
+    /**
+     * Intersects two bitmaps.
+     *
+     * @param other the other bitmap
+     * @return the rows in both bitmaps
+     */
+    public RowBitmap and(RowBitmap other) {
+        Builder builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                builder.addTrimmed(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Removes the rows of another bitmap from this one.
+     *
+     * @param other the rows to remove
+     * @return the rows in this bitmap but not in the other
+     */
+    public RowBitmap andNot(RowBitmap other) {
+        Builder builder = new Builder();
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                builder.addTrimmed(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                builder.add(keys[i], containers[i], cardinality(containers[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copies the rows into a plain bit set, where bit {@code row % 64} of word {@code row / 64}
+     * marks a row.
+     *
+     * @param size number of rows the bit set must cover
+     * @return the bits
+     */
+    public long[] toWords(int size) {
+        long[] words = new long[Math.max((size + 63) / 64, keys.length == 0 ? 0
+                : (keys[keys.length - 1] + 1) * CHUNK_WORDS)];
+        for (int i = 0; i < keys.length; i++) {
+            int base = keys[i] * CHUNK_WORDS;
+            Object container = containers[i];
+            if (container instanceof long[]) {
+                System.arraycopy(container, 0, words, base, CHUNK_WORDS);
+            } else {
+                for (char low : (char[]) container) {
+                    words[base + (low >>> 6)] |= 1L << low;
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Copies the rows into an array.
+     *
+     * @return the rows in ascending order
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    rows[count++] = high | low;
+                }
+            } else {
+                long[] words = (long[]) container;
+                for (int w = 0; w < words.length; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        rows[count++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Intersects two containers.
+     *
+     * @param a a container
+     * @param b a container
+     * @return the intersection, as a char[] or long[]
+     */
+    private static Object and(Object a, Object b) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            long[] out = new long[CHUNK_WORDS];
+            for (int w = 0; w < CHUNK_WORDS; w++) {
+                out[w] = x[w] & y[w];
+            }
+            return out;
+        }
+        if (a instanceof long[]) {
+            return filter((char[]) b, (long[]) a, true);
+        }
+        if (b instanceof long[]) {
+            return filter((char[]) a, (long[]) b, true);
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        char[] out = new char[Math.min(x.length, y.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < x.length && j < y.length) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                out[count++] = x[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Removes the rows of one container from another.
+     *
+     * @param a the container to remove from
+     * @param b the rows to remove
+     * @return the difference, as a char[] or long[]
+     */
+    private static Object andNot(Object a, Object b) {
+        if (a instanceof char[]) {
+            char[] x = (char[]) a;
+            if (b instanceof long[]) {
+                return filter(x, (long[]) b, false);
+            }
+            char[] y = (char[]) b;
+            char[] out = new char[x.length];
+            int count = 0;
+            int j = 0;
+            for (char low : x) {
+                while (j < y.length && y[j] < low) {
+                    j++;
+                }
+                if (j >= y.length || y[j] != low) {
+                    out[count++] = low;
+                }
+            }
+            return Arrays.copyOf(out, count);
+        }
+        long[] out = ((long[]) a).clone();
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int w = 0; w < CHUNK_WORDS; w++) {
+                out[w] &= ~y[w];
+            }
+        } else {
+            for (char low : (char[]) b) {
+                out[low >>> 6] &= ~(1L << low);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Keeps the entries of an array container whose bit is (or is not) set in a bitmap.
+     *
+     * @param values the array container
+     * @param words  the bitmap container
+     * @param keep   true to keep set bits, false to keep cleared bits
+     * @return the filtered array container
+     */
+    private static char[] filter(char[] values, long[] words, boolean keep) {
+        char[] out = new char[values.length];
+        int count = 0;
+        for (char low : values) {
+            if (((words[low >>> 6] & (1L << low)) != 0) == keep) {
+                out[count++] = low;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Counts the rows in a container.
+     *
+     * @param container a char[] or long[]
+     * @return the number of rows
+     */
+    private static int cardinality(Object container) {
+        if (container instanceof char[]) {
+            return ((char[]) container).length;
+        }
+        int card = 0;
+        for (long word : (long[]) container) {
+            card += Long.bitCount(word);
+        }
+        return card;
+    }
+
+    /**
+     * Converts sorted lower bits into a bitmap container.
+     *
+     * @param values the lower 16 bits, ascending
+     * @return the bitmap container
+     */
+    private static long[] toWords(char[] values) {
+        long[] words = new long[CHUNK_WORDS];
+        for (char low : values) {
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    /**
+     * Converts a bitmap container into an array container.
+     *
+     * @param words the bitmap container
+     * @param card  number of set bits
+     * @return the array container
+     */
+    private static char[] toArray(long[] words, int card) {
+        char[] values = new char[card];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[count++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Collects chunks in ascending key order into a bitmap.
+     */
+    private static final class Builder {
+        /**
+         * Keys collected so far.
+         */
+        private int[] keys = new int[4];
+        /**
+         * Containers collected so far.
+         */
+        private Object[] containers = new Object[4];
+        /**
+         * Number of chunks collected.
+         */
+        private int size;
+        /**
+         * Number of rows collected.
+         */
+        private int cardinality;
+
+        /**
+         * Adds a chunk, switching it to the container type that suits its cardinality and
+         * dropping it if it is empty.
+         *
+         * @param key       upper 16 bits of the chunk
+         * @param container the chunk's rows
+         */
+        void addTrimmed(int key, Object container) {
+            int card = cardinality(container);
+            if (card == 0) {
+                return;
+            }
+            if (container instanceof long[] && card <= ARRAY_LIMIT) {
+                container = toArray((long[]) container, card);
+            }
+            add(key, container, card);
+        }
+
+        /**
+         * Adds a non-empty chunk as is.
+         *
+         * @param key       upper 16 bits of the chunk
+         * @param container the chunk's rows
+         * @param card      number of rows in the chunk
+         */
+        void add(int key, Object container, int card) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = key;
+            containers[size] = container;
+            size++;
+            cardinality += card;
+        }
+
+        /**
+         * Builds the bitmap.
+         *
+         * @return the bitmap
+         */
+        RowBitmap build() {
+            return new RowBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size),
+                    cardinality);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package student;
+
+/**
+ * Sort order over the rows of a {@link GameCatalog}, comparing column values straight from the
+ * catalog's arrays, and names by their collation ranks. Ties are broken by row, in ascending
+ * order for both directions, which is the order a stable sort over the rows would keep.
+ */
+final class RowOrder {
+    /**
+     * The catalog the rows belong to.
+     */
+    private final GameCatalog catalog;
+    /**
+     * Column to sort on.
+     */
+    private final GameData column;
+    /**
+     * True for ascending order.
+     */
+    private final boolean ascending;
+    /**
+     * Values of an int column, the name ranks for NAME, or null.
+     */
+    private final int[] ints;
+    /**
+     * Values of a double column, or null.
+     */
+    private final double[] doubles;
+
+    /**
+     * Constructs the order for a column.
+     *
+     * @param catalog   the catalog the rows belong to
+     * @param column    the column to sort on
+     * @param ascending true for ascending order
+     * @throws IllegalArgumentException if the column cannot be sorted on
+     */
+    RowOrder(GameCatalog catalog, GameData column, boolean ascending) {
+        if (column == GameData.ID) {
+            throw new IllegalArgumentException("Sorting by this attribute is not supported.");
+        }
+        this.catalog = catalog;
+        this.column = column;
+        this.ascending = ascending;
+        if (column == GameData.NAME) {
+            this.ints = catalog.index().nameRanks();
+        } else {
+            this.ints = GameCatalog.isDoubleColumn(column) ? null : catalog.intColumn(column);
+        }
+        this.doubles = GameCatalog.isDoubleColumn(column) ? catalog.doubleColumn(column) : null;
+    }
+
+    /**
+     * Compares two rows.
+     *
+     * @param a a row
+     * @param b another row
+     * @return negative if a comes first, positive if b comes first
+     */
+    int compare(int a, int b) {
+        int result;
+        if (ints != null) {
+            result = Integer.compare(ints[a], ints[b]);
+        } else {
+            result = Double.compare(doubles[a], doubles[b]);
+        }
+        if (result == 0) {
+            return Integer.compare(a, b);
+        }
+        return ascending ? result : -result;
+    }
+
+    /**
+     * Checks if a row comes after the position of a cursor in this order.
+     *
+     * @param row    a row
+     * @param cursor a cursor made for this column and direction
+     * @return true if the row comes after the cursor
+     */
+    boolean isAfter(int row, PageCursor cursor) {
+        int result;
+        if (column == GameData.NAME) {
+            // the cursor holds the name itself, which need not be in this catalog
+            result = String.CASE_INSENSITIVE_ORDER.compare(catalog.name(row), cursor.text());
+        } else if (ints != null) {
+            result = Double.compare(ints[row], cursor.number());
+        } else {
+            result = Double.compare(doubles[row], cursor.number());
+        }
+        if (result == 0) {
+            return row > cursor.row();
+        }
+        return ascending ? result > 0 : result < 0;
+    }
+
+    /**
+     * Selects the first k rows in this order, using a bounded heap so only k rows are held at a
+     * time. Runs in O(n log k).
+     *
+     * @param rows the rows to select from
+     * @param k    the number of rows to keep
+     * @return the first k rows (or all rows if there are fewer), sorted
+     */
+    int[] first(int[] rows, int k) {
+        int size = Math.min(k, rows.length);
+        if (size <= 0) {
+            return new int[0];
+        }
+        // max-heap on this order: the root is the worst of the rows kept so far
+        int[] heap = new int[size];
+        int count = 0;
+        for (int row : rows) {
+            if (count < size) {
+                heap[count] = row;
+                siftUp(heap, count++);
+            } else if (compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, count);
+            }
+        }
+        for (int end = count - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    /**
+     * Moves a heap entry up until its parent comes after it.
+     *
+     * @param heap the heap
+     * @param i    position of the entry
+     */
+    private void siftUp(int[] heap, int i) {
+        int row = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(heap[parent], row) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = row;
+    }
+
+    /**
+     * Moves a heap entry down until both children come before it.
+     *
+     * @param heap the heap
+     * @param i    position of the entry
+     * @param size number of entries in the heap
+     */
+    private void siftDown(int[] heap, int i, int size) {
+        int row = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = row;
+    }
+}
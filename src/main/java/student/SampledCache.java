@@ -0,0 +1,262 @@
+package student;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache, safe for many threads, that evicts an entry used less recently than most
+ * others when it is full: the oldest of a few entries sampled at random, not strictly the least
+ * recently used one.
+ * <p>
+ * Lookups never lock: an entry records when it was last used with a volatile stamp, copied from
+ * a shared clock that only inserts advance, past the stamp of the inserted entry. A lookup reads
+ * the clock and writes the entry's stamp only if an insert happened since the entry was last
+ * used, so a hot entry is read without writing anything and lookups never write the shared
+ * clock. Entries used between the same two inserts share a stamp, so their order is unknown.
+ * <p>
+ * Inserts take a lock, which also keeps every entry in an array for sampling; a value is only
+ * inserted after a lookup missed and the value was computed, which costs far more. An insert
+ * that pushes the cache over its capacity evicts the entry with the oldest stamp among 16 entries
+ * picked at random, so an eviction costs the same however many entries the cache holds. What is
+ * guaranteed is that the cache never holds more than its capacity and that the inserted value
+ * is kept; a cache of at most 16 other entries compares them all, so it evicts its least recently
+ * used entry, up to the order of entries sharing a stamp. Larger caches evict an entry that is
+ * older than most, which is fine for values that can always be computed again.
+ * <p>
+ * The capacity is a number of entries, or, with a weigher, a total weight such as a size in
+ * bytes. A value heavier than the whole capacity is returned by {@link #put} but not cached.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class SampledCache<K, V> {
+    /**
+     * Number of entries compared to choose one to evict.
+     */
+    private static final int EVICTION_SAMPLES = 16;
+
+    /**
+     * Maximum total weight of the entries.
+     */
+    private final long capacity;
+    /**
+     * Weight of a value, 1 for caches bounded by their number of entries.
+     */
+    private final ToLongFunction<? super V> weigher;
+    /**
+     * Entries by key.
+     */
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    /**
+     * Total weight of the entries.
+     */
+    private final AtomicLong weight = new AtomicLong();
+    /**
+     * Source of the access stamps, advanced by every insert.
+     */
+    private final AtomicLong clock = new AtomicLong();
+    /**
+     * Held while adding or removing entries.
+     */
+    private final Object lock = new Object();
+    /**
+     * Every entry, in no particular order, for sampling; guarded by the lock.
+     */
+    private Entry<?, ?>[] table = new Entry<?, ?>[EVICTION_SAMPLES];
+    /**
+     * Number of entries in the table; guarded by the lock.
+     */
+    private int count;
+
+    /**
+     * Constructs an empty cache bounded by its number of entries.
+     *
+     * @param capacity maximum number of entries
+     */
+    SampledCache(int capacity) {
+        this(capacity, value -> 1);
+    }
+
+    /**
+     * Constructs an empty cache bounded by the total weight of its values.
+     *
+     * @param capacity maximum total weight
+     * @param weigher  the weight of a value, computed once when it is added
+     */
+    SampledCache(long capacity, ToLongFunction<? super V> weigher) {
+        this.capacity = capacity;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get a value and mark it as recently used.
+     *
+     * @param key the key
+     * @return the value, or null if it is not cached
+     */
+    V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = clock.get();
+        if (entry.stamp != now) {
+            entry.stamp = now;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Adds a value, evicting sampled old entries, never the new one, if the cache is full. If
+     * another thread cached the key first, its value is kept and returned.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the cached value for the key
+     */
+    V put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > capacity) {
+            return value;
+        }
+        synchronized (lock) {
+            Entry<K, V> previous = entries.get(key);
+            if (previous != null) {
+                return previous.value;
+            }
+            Entry<K, V> entry = new Entry<>(key, value, valueWeight, clock.getAndIncrement());
+            if (count == table.length) {
+                Entry<?, ?>[] grown = new Entry<?, ?>[count * 2];
+                System.arraycopy(table, 0, grown, 0, count);
+                table = grown;
+            }
+            entry.index = count;
+            table[count++] = entry;
+            entries.put(key, entry);
+            weight.addAndGet(valueWeight);
+            while (weight.get() > capacity) {
+                remove(oldestSampled(entry));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        synchronized (lock) {
+            while (count > 0) {
+                remove(table[count - 1]);
+            }
+        }
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return the size
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total weight of the cached entries.
+     *
+     * @return the weight, the number of entries without a weigher
+     */
+    long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Finds the entry with the oldest access stamp among every entry of a small cache, or among
+     * randomly picked entries of a large one, leaving out the entry being inserted. Must be
+     * called with the lock held, and the cache must hold another entry.
+     *
+     * @param inserted the entry being inserted
+     * @return the entry to evict
+     */
+    private Entry<?, ?> oldestSampled(Entry<?, ?> inserted) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean all = count - 1 <= EVICTION_SAMPLES;
+        Entry<?, ?> oldest = null;
+        for (int i = 0; i < (all ? count : EVICTION_SAMPLES); i++) {
+            Entry<?, ?> entry = table[all ? i : random.nextInt(count)];
+            if (entry == inserted) {
+                // a large cache picks again, so it always compares as many entries
+                if (!all) {
+                    i--;
+                }
+                continue;
+            }
+            if (oldest == null || entry.stamp < oldest.stamp) {
+                oldest = entry;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Removes an entry, moving the last entry of the table into its place, and takes its weight
+     * off the total. Must be called with the lock held.
+     *
+     * @param entry the entry
+     */
+    private void remove(Entry<?, ?> entry) {
+        entries.remove(entry.key);
+        Entry<?, ?> last = table[--count];
+        table[entry.index] = last;
+        last.index = entry.index;
+        table[count] = null;
+        weight.addAndGet(-entry.weight);
+    }
+
+    /**
+     * A cached value with its key, weight, last access stamp and place in the table.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     */
+    private static final class Entry<K, V> {
+        /**
+         * The key.
+         */
+        private final K key;
+        /**
+         * The cached value.
+         */
+        private final V value;
+        /**
+         * Weight of the value.
+         */
+        private final long weight;
+        /**
+         * Clock value of the last access.
+         */
+        private volatile long stamp;
+        /**
+         * Position in the table; guarded by the cache's lock.
+         */
+        private int index;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param key    the key
+         * @param value  the value
+         * @param weight the weight of the value
+         * @param stamp  the access stamp
+         */
+        private Entry(K key, V value, long weight, long stamp) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One column of a multi-column sort, with its direction. A sort spec is a list of keys, the first
+ * key deciding the order and every next key breaking the ties left by the keys before it.
+ */
+public final class SortKey {
+    /**
+     * Suffix of a descending key in a sort spec.
+     */
+    private static final String DESC = "desc";
+    /**
+     * Suffix of an ascending key in a sort spec.
+     */
+    private static final String ASC = "asc";
+
+    /**
+     * The column to sort on.
+     */
+    private final GameData column;
+    /**
+     * True for ascending order.
+     */
+    private final boolean ascending;
+
+    /**
+     * Constructs a sort key.
+     *
+     * @param column    the column to sort on
+     * @param ascending true for ascending order
+     * @throws IllegalArgumentException if the column cannot be sorted on
+     */
+    public SortKey(GameData column, boolean ascending) {
+        if (column == GameData.ID) {
+            throw new IllegalArgumentException("Sorting by this attribute is not supported.");
+        }
+        this.column = column;
+        this.ascending = ascending;
+    }
+
+    /**
+     * Parses a sort spec: columns separated by commas, each optionally followed by asc or desc,
+     * for example {@code "rating desc, year asc, name"}. Spaces are optional, so
+     * {@code "ratingdesc,yearasc,name"} is the same spec.
+     *
+     * @param spec the sort spec
+     * @return the keys, in order
+     * @throws IllegalArgumentException if a column is unknown or cannot be sorted on, or the spec
+     *                                  has no column
+     */
+    public static List<SortKey> parse(String spec) {
+        List<SortKey> keys = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String key = part.trim().toLowerCase();
+            if (key.isEmpty()) {
+                continue;
+            }
+            boolean ascending = true;
+            if (key.endsWith(DESC)) {
+                ascending = false;
+                key = key.substring(0, key.length() - DESC.length()).trim();
+            } else if (key.endsWith(ASC)) {
+                key = key.substring(0, key.length() - ASC.length()).trim();
+            }
+            keys.add(new SortKey(GameData.fromString(key), ascending));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No sort column in: " + spec);
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * Builds a comparator over board games for a sort spec, from the {@link Sorts} comparators.
+     *
+     * @param keys the sort keys
+     * @return the comparator
+     */
+    public static Comparator<BoardGame> comparator(List<SortKey> keys) {
+        Comparator<BoardGame> comparator = null;
+        for (SortKey key : keys) {
+            Comparator<BoardGame> next = Sorts.createComparator(key.column);
+            if (!key.ascending) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    /**
+     * Get the column to sort on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Checks if the key sorts in ascending order.
+     *
+     * @return true for ascending order
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Checks if another object is the same sort key.
+     *
+     * @param obj the object
+     * @return true if it sorts on the same column in the same direction
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof SortKey)) {
+            return false;
+        }
+        SortKey other = (SortKey) obj;
+        return column == other.column && ascending == other.ascending;
+    }
+
+    /**
+     * Get the hash code of the key.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return column.hashCode() * 2 + (ascending ? 1 : 0);
+    }
+
+    /**
+     * Get the key as it is written in a sort spec.
+     *
+     * @return the column name and direction, for example {@code "average desc"}
+     */
+    @Override
+    public String toString() {
+        return column.getColumnName() + " " + (ascending ? ASC : DESC);
+    }
+}
@@ -1,13 +1,19 @@
 package student;
 
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The Sorts class provides methods to sort board games based on various attributes.
  * It applies different sorting strategies dynamically based on user input.
  */
 public final class Sorts {
+    /**
+     * Comparators for every sortable column, built once.
+     */
+    private static final Map<GameData, Comparator<BoardGame>> COMPARATORS = buildComparators();
 
     /**
      * Private constructor to prevent instantiation.
@@ -43,13 +49,45 @@ public final class Sorts {
     }
 
     /**
-     * Creates a comparator for sorting board games based on the specified attribute.
+     * Gets the comparator for sorting board games based on the specified attribute.
+     * <p>
+     * Comparators are stateless, so one per column is built when the class loads and shared.
      *
      * @param attribute The attribute to sort by.
      * @return A comparator for sorting board games according to the specified attribute.
      * @throws IllegalArgumentException if the sorting attribute is not supported.
      */
     public static Comparator<BoardGame> createComparator(GameData attribute) {
+        Comparator<BoardGame> comparator = COMPARATORS.get(attribute);
+        if (comparator == null) {
+            throw new IllegalArgumentException("Sorting by this attribute is not supported.");
+        }
+        return comparator;
+    }
+
+    /**
+     * Builds the comparators for every sortable column.
+     *
+     * @return the comparators by column
+     */
+    private static Map<GameData, Comparator<BoardGame>> buildComparators() {
+        Map<GameData, Comparator<BoardGame>> comparators = new EnumMap<>(GameData.class);
+        for (GameData attribute : GameData.values()) {
+            Comparator<BoardGame> comparator = buildComparator(attribute);
+            if (comparator != null) {
+                comparators.put(attribute, comparator);
+            }
+        }
+        return comparators;
+    }
+
+    /**
+     * Builds a comparator for sorting board games based on the specified attribute.
+     *
+     * @param attribute The attribute to sort by.
+     * @return A comparator for the attribute, or null if it cannot be sorted on.
+     */
+    private static Comparator<BoardGame> buildComparator(GameData attribute) {
         switch (attribute) {
             case RATING:
                 return Comparator.comparingDouble(BoardGame::getRating);
@@ -61,10 +99,16 @@ public final class Sorts {
                 return Comparator.comparingInt(BoardGame::getMinPlayers);
             case MAX_PLAYERS:
                 return Comparator.comparingInt(BoardGame::getMaxPlayers);
+            case MIN_TIME:
+                return Comparator.comparingInt(BoardGame::getMinPlayTime);
+            case MAX_TIME:
+                return Comparator.comparingInt(BoardGame::getMaxPlayTime);
+            case RANK:
+                return Comparator.comparingInt(BoardGame::getRank);
             case NAME:
                 return Comparator.comparing(BoardGame::getName, String.CASE_INSENSITIVE_ORDER);
             default:
-                throw new IllegalArgumentException("Sorting by this attribute is not supported.");
+                return null;
         }
     }
 
@@ -2,16 +2,24 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import student.BoardGame;
+import student.CollectionGenerator;
+import student.GameCatalog;
 import student.Filters;
 import student.Sorts;
 import student.GameData;
+import student.Page;
 import student.Planner;
 import student.IPlanner;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,5 +85,118 @@ public class TestPlanner {
         assertEquals(8, filtered.size());
     }
 
+    @Test
+    public void testFilterWithLimit() {
+        List<BoardGame> filtered = planner.filter("minPlayers >= 2", GameData.RATING, false, 3)
+                .collect(Collectors.toList());
+        assertEquals(3, filtered.size());
+        assertEquals("Chess", filtered.get(0).getName());
+        assertEquals("golang", filtered.get(1).getName());
+        assertEquals("GoRami", filtered.get(2).getName());
 
-}
\ No newline at end of file
+        List<BoardGame> all = planner.filter("", GameData.RATING, false).collect(Collectors.toList());
+        assertEquals(all.subList(0, 5), planner.filter("", GameData.RATING, false, 5).toList());
+        assertEquals(0, planner.filter("", GameData.NAME, true, 0).count());
+    }
+
+    @Test
+    public void testConcurrentSessions() throws Exception {
+        Planner shared = new Planner(games);
+        String[] filters = {"minPlayers > 4", "rating >= 8", "name ~= go", "maxPlayers < 10"};
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                String filter = filters[t % filters.length];
+                futures.add(pool.submit(() -> {
+                    Planner session = shared.newSession();
+                    List<String> expected = Filters.applyFilter(filter, games.stream())
+                            .map(BoardGame::getName).sorted().collect(Collectors.toList());
+                    for (int i = 0; i < 200; i++) {
+                        List<String> actual = session.filter(filter).map(BoardGame::getName)
+                                .sorted().collect(Collectors.toList());
+                        assertEquals(expected, actual);
+                        session.reset();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFiltersAreProgressive() {
+        assertEquals(3, planner.filter("minPlayers > 2").count());
+        List<BoardGame> narrowed = planner.filter("maxPlayers < 15").collect(Collectors.toList());
+        assertEquals(2, narrowed.size());
+        assertTrue(narrowed.stream().noneMatch(game -> game.getName().equals("Tucano")));
+        assertEquals(2, planner.filter("", GameData.NAME, true).count());
+        planner.reset();
+        assertEquals(8, planner.filter("").count());
+    }
+
+    @Test
+    public void testProgressiveFiltersMatchCombinedFilter() {
+        GameCatalog catalog = CollectionGenerator.fromDefaultCollection().generate(20_000, 3);
+        List<BoardGame> all = IntStream.range(0, catalog.size()).mapToObj(catalog::game)
+                .collect(Collectors.toList());
+        String[][] steps = {{"rating >= 8.5", "minplayers <= 2", "name ~= a"},
+            {"minplayers >= 1", "maxplaytime < 120", "avgweight != 0"}};
+        for (String[] filters : steps) {
+            Planner session = new Planner(catalog);
+            String combined = "";
+            for (String filter : filters) {
+                combined = combined.isEmpty() ? filter : combined + "," + filter;
+                List<String> expected = Filters.applyFilter(combined, all.stream())
+                        .map(BoardGame::getName).sorted().collect(Collectors.toList());
+                List<String> actual = session.filter(filter).map(BoardGame::getName).sorted()
+                        .collect(Collectors.toList());
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testPagesMatchSortedResult() {
+        GameCatalog catalog = CollectionGenerator.fromDefaultCollection().generate(5_000, 11);
+        GameData[] columns = {GameData.NAME, GameData.RATING, GameData.YEAR, GameData.MIN_PLAYERS};
+        String[] filters = {"", "rating >= 8", "maxplayers >= 6"};
+        for (GameData column : columns) {
+            for (String filter : filters) {
+                for (boolean ascending : new boolean[] {true, false}) {
+                    Planner session = new Planner(catalog);
+                    List<BoardGame> expected = session.filter(filter, column, ascending)
+                            .collect(Collectors.toList());
+                    List<BoardGame> paged = new ArrayList<>();
+                    String cursor = null;
+                    do {
+                        Page page = session.page("", column, ascending, 97, cursor);
+                        assertTrue(page.getGames().size() <= 97);
+                        paged.addAll(page.getGames());
+                        cursor = page.getNextCursor();
+                    } while (cursor != null);
+                    assertEquals(expected, paged);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidPageRequests() {
+        Planner session = new Planner(games);
+        Page first = session.page("", GameData.RATING, true, 3, null);
+        assertTrue(first.hasNext());
+        assertThrows(IllegalArgumentException.class,
+                () -> session.page("", GameData.YEAR, true, 3, first.getNextCursor()));
+        assertThrows(IllegalArgumentException.class,
+                () -> session.page("", GameData.RATING, false, 3, first.getNextCursor()));
+        assertThrows(IllegalArgumentException.class,
+                () -> session.page("", GameData.RATING, true, 3, "not a cursor"));
+        assertThrows(IllegalArgumentException.class,
+                () -> session.page("", GameData.RATING, true, 0, null));
+    }
+}
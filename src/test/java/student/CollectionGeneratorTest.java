@@ -0,0 +1,69 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectionGeneratorTest {
+    private GameCatalog source;
+    private CollectionGenerator generator;
+
+    @BeforeEach
+    public void setUp() {
+        source = GamesLoader.loadCatalog("/collection.csv");
+        generator = new CollectionGenerator(source);
+    }
+
+    @Test
+    public void testSameSeedSameCollection() {
+        GameCatalog a = generator.generate(2000, 7);
+        GameCatalog b = generator.generate(2000, 7);
+        GameCatalog c = generator.generate(2000, 8);
+        assertEquals(2000, a.size());
+        boolean differs = false;
+        for (int row = 0; row < a.size(); row++) {
+            assertEquals(a.game(row).toString(), b.game(row).toString());
+            differs |= !a.game(row).toString().equals(c.game(row).toString());
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testValuesFollowSource() {
+        GameCatalog generated = generator.generate(5000, 1);
+        for (int row = 0; row < generated.size(); row++) {
+            BoardGame game = generated.game(row);
+            assertEquals(row + 1, game.getId());
+            assertTrue(game.getMinPlayers() <= game.getMaxPlayers());
+            assertTrue(game.getMinPlayTime() <= game.getMaxPlayTime());
+            assertTrue(game.getRating() >= 0 && game.getRating() <= 10);
+            assertTrue(game.getRank() >= 0 && game.getRank() <= 5000);
+            assertFalse(game.getName().isEmpty());
+        }
+    }
+
+    @Test
+    public void testCsvAndSnapshotMatch() throws Exception {
+        Path csv = Files.createTempFile("generated", ".csv");
+        Path snapshot = Files.createTempFile("generated", ".snapshot");
+        try {
+            generator.writeCsv(csv, 3000, 5);
+            generator.writeSnapshot(snapshot, 3000, 5);
+            GameCatalog parsed = GamesLoader.loadCatalog(csv);
+            GameCatalog mapped = CatalogSnapshot.read(snapshot);
+            GameCatalog generated = generator.generate(3000, 5);
+            assertEquals(3000, parsed.size());
+            for (int row = 0; row < parsed.size(); row++) {
+                assertEquals(generated.game(row).toString(), parsed.game(row).toString());
+                assertEquals(generated.game(row).toString(), mapped.game(row).toString());
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(snapshot);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnScanTest {
+    /**
+     * Number of games; rows past 128 are after the last full vector and word.
+     */
+    private static final int SIZE = 130;
+
+    private GameCatalog catalog;
+    private QueryExecutor split;
+
+    @BeforeEach
+    public void setup() {
+        List<BoardGame> games = new ArrayList<>();
+        for (int row = 0; row < SIZE; row++) {
+            // rating row / 10, min players 1-4 and max players 2-5 by row % 4, difficulty 0 on
+            // every third row, year 1990 + row % 30, rank row
+            games.add(new BoardGame("Game " + row, row + 1, 1 + row % 4, 2 + row % 4, 30, 60,
+                    row % 3 == 0 ? 0 : 2.5, row, row / 10.0, 1990 + row % 30));
+        }
+        catalog = GameCatalog.of(games);
+        // split every loop, even small ones
+        split = new QueryExecutor(4, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        split.shutdown();
+    }
+
+    private static long[] rows(IntPredicate expected) {
+        long[] words = new long[(SIZE + 63) / 64];
+        for (int row = 0; row < SIZE; row++) {
+            if (expected.test(row)) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        return words;
+    }
+
+    private static FilterCondition condition(String filter) {
+        return FilterCompiler.compile(filter).getConditions().get(0);
+    }
+
+    @Test
+    public void testScans() {
+        String[] filters = {"rating>7", "rating<=6.5", "avgweight==0", "avgweight!=0",
+            "minplayers>=2", "maxplayers<4", "year==2010", "rank!=0", "name~=e 12"};
+        IntPredicate[] expected = {row -> row >= 71, row -> row <= 65, row -> row % 3 == 0,
+            row -> row % 3 != 0, row -> row % 4 != 0, row -> row % 4 <= 1,
+            row -> row % 30 == 20, row -> row != 0, row -> row == 12 || row >= 120};
+        ColumnScan.Kernel kernel = ColumnScan.vectorKernel();
+        for (int i = 0; i < filters.length; i++) {
+            FilterCondition condition = condition(filters[i]);
+            long[] words = rows(expected[i]);
+            assertArrayEquals(words, ColumnScan.scalarMatches(catalog, condition), filters[i]);
+            assertArrayEquals(words, ColumnScan.matches(catalog, condition), filters[i]);
+            assertArrayEquals(words, ColumnScan.matches(catalog, condition, split), filters[i]);
+            if (kernel != null && condition.getColumn() != GameData.NAME) {
+                long[] vector = new long[words.length];
+                kernel.matches(catalog, condition, 0, SIZE, vector);
+                assertArrayEquals(words, vector, filters[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testBroadAndNarrowRangesAgree() {
+        String[] filters = {"rating>0", "rating>12.5"};
+        IntPredicate[] expected = {row -> row > 0, row -> row >= 126};
+        for (int i = 0; i < filters.length; i++) {
+            long[] words = catalog.bitmaps().get(condition(filters[i])).toWords(SIZE);
+            assertArrayEquals(rows(expected[i]), Arrays.copyOf(words, 3), filters[i]);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterCompilerTest {
+
+    @Test
+    public void testNormalize() {
+        assertEquals("minplayers>2,rating>=7", FilterCompiler.normalize(" minPlayers > 2 , Rating >= 7 "));
+        assertEquals("name==go  fish", FilterCompiler.normalize("name == Go  Fish"));
+        assertEquals("name==a b,year>2000", FilterCompiler.normalize("name==a b ,\tyear > 2000"));
+    }
+
+    @Test
+    public void testCompileIsCached() {
+        CompiledFilter first = FilterCompiler.compile("minPlayers > 2, rating >= 7");
+        CompiledFilter second = FilterCompiler.compile("minplayers>2,RATING>=7");
+        assertSame(first, second);
+        assertEquals(2, first.getConditions().size());
+        assertEquals("minplayers>2,average>=7.0", first.toString());
+    }
+
+    @Test
+    public void testInvalidConditionsAreDropped() {
+        CompiledFilter filter = FilterCompiler.compile("bogus > 2, minPlayers > abc, rating ~= 7, year < 2000");
+        assertEquals(1, filter.getConditions().size());
+        assertEquals(GameData.YEAR, filter.getConditions().get(0).getColumn());
+        assertTrue(FilterCompiler.compile("").isEmpty());
+    }
+
+    @Test
+    public void testConditionMatches() {
+        BoardGame chess = new BoardGame("Chess", 1, 2, 2, 10, 20, 3.5, 100, 7.5, 2000);
+        assertTrue(FilterCompiler.compile("name ~= HES, rank <= 100, maxPlaytime == 20").test(chess));
+        assertFalse(FilterCompiler.compile("difficulty > 3.5").test(chess));
+        BoardGame fish = new BoardGame("Go  Fish", 2, 2, 6, 10, 20, 1.0, 900, 5.5, 1990);
+        assertTrue(FilterCompiler.compile("name == Go  Fish").test(fish));
+        assertFalse(FilterCompiler.compile("name == Go Fish").test(fish));
+    }
+}
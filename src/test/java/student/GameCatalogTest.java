@@ -0,0 +1,50 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCatalogTest {
+    private List<BoardGame> games;
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setup() {
+        games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 1, 2, 2, 10, 20, 3.5, 100, 7.5, 2000));
+        games.add(new BoardGame("Monopoly", 2, 2, 6, 30, 120, 2.0, 200, 6.0, 1995));
+        games.add(new BoardGame("Catan", 3, 3, 4, 60, 120, 4.0, 50, 8.2, 2002));
+        catalog = GameCatalog.of(games);
+    }
+
+    @Test
+    public void testGameRoundTrip() {
+        assertEquals(3, catalog.size());
+        for (int row = 0; row < catalog.size(); row++) {
+            BoardGame game = catalog.game(row);
+            assertEquals(games.get(row), game);
+            assertEquals(games.get(row).toString(), game.toString());
+        }
+    }
+
+    @Test
+    public void testFilterRows() {
+        assertArrayEquals(new int[] {0, 2}, Filters.filterRows("rating >= 7", catalog));
+        assertArrayEquals(new int[] {2}, Filters.filterRows("minPlayers > 2, year > 2000", catalog));
+        assertArrayEquals(new int[] {1}, Filters.filterRows("name ~= POLY", catalog));
+        assertArrayEquals(new int[] {0, 1, 2}, Filters.filterRows("", catalog));
+    }
+
+    @Test
+    public void testRowLookups() {
+        assertEquals(2, catalog.rowOfId(3));
+        assertEquals(0, catalog.rowOfId(1));
+        assertEquals(-1, catalog.rowOfId(4));
+        assertArrayEquals(new int[] {1}, catalog.rowsNamed("MONOPOLY"));
+        assertArrayEquals(new int[0], catalog.rowsNamed("Mono"));
+    }
+}
@@ -0,0 +1,66 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameIdSetTest {
+
+    @Test
+    public void testAddRemove() {
+        GameIdSet set = new GameIdSet();
+        assertTrue(set.add(7, 3));
+        assertFalse(set.add(7, 4));
+        assertTrue(set.contains(7));
+        assertEquals(1, set.size());
+        assertEquals(3, set.remove(7));
+        assertEquals(-1, set.remove(7));
+        assertFalse(set.contains(7));
+        assertEquals(0, set.size());
+        assertThrows(IllegalArgumentException.class, () -> set.add(8, -1));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        GameIdSet set = new GameIdSet();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(500) - 250;
+            if (random.nextInt(3) == 0) {
+                Integer value = expected.remove(id);
+                assertEquals(value == null ? -1 : value, set.remove(id));
+            } else {
+                assertEquals(expected.putIfAbsent(id, i) == null, set.add(id, i));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (int id = -250; id < 250; id++) {
+            assertEquals(expected.containsKey(id), set.contains(id));
+        }
+        Map<Integer, Integer> seen = new HashMap<>();
+        set.forEach(value -> seen.merge(value, 1, Integer::sum));
+        Map<Integer, Integer> values = new HashMap<>();
+        expected.values().forEach(value -> values.merge(value, 1, Integer::sum));
+        assertEquals(values, seen);
+    }
+
+    @Test
+    public void testSetAndClear() {
+        GameIdSet set = new GameIdSet();
+        for (int id = 0; id < 100; id++) {
+            set.add(id, id);
+        }
+        set.set(99, 5);
+        assertEquals(5, set.remove(99));
+        assertThrows(IllegalArgumentException.class, () -> set.set(99, 1));
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(50));
+        assertTrue(set.add(50, 0));
+    }
+}
@@ -0,0 +1,107 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameIndexTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setup() {
+        Random rnd = new Random(42);
+        List<BoardGame> games = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            games.add(new BoardGame("Game " + i, i, 1 + rnd.nextInt(4), 2 + rnd.nextInt(8),
+                    10 * rnd.nextInt(10), 10 * rnd.nextInt(20), rnd.nextInt(50) / 10.0,
+                    rnd.nextInt(1000), rnd.nextInt(100) / 10.0, 1950 + rnd.nextInt(70)));
+        }
+        catalog = GameCatalog.of(games);
+    }
+
+    @Test
+    public void testNaNOutsideRanges() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 1, 2, 2, 10, 20, 3.5, 100, 7.5, 2000));
+        games.add(new BoardGame("Unrated", 2, 2, 4, 30, 60, Double.NaN, 0, Double.NaN, 2020));
+        games.add(new BoardGame("Catan", 3, 3, 4, 60, 120, 2.3, 50, 8.2, 2002));
+        GameIndex index = GameCatalog.of(games).index();
+        assertEquals(1, index.range(condition("rating > 8")).size());
+        assertEquals(2, index.range(condition("rating >= 0")).size());
+        assertEquals(2, index.range(condition("rating < 100")).size());
+        assertEquals(0, index.range(condition("difficulty > 4")).size());
+        int[] rows = index.range(condition("difficulty>=1")).rows();
+        Arrays.sort(rows);
+        assertArrayEquals(new int[] {0, 2}, rows);
+    }
+
+    private static FilterCondition condition(String filter) {
+        return FilterCompiler.compile(filter).getConditions().get(0);
+    }
+
+    @Test
+    public void testRangeSizes() {
+        for (String filter : List.of("rating >= 7", "rating > 9.5", "year < 1960", "minPlayers <= 2",
+                "maxPlayers == 5", "rank > 990", "difficulty < 0")) {
+            FilterCondition condition = FilterCompiler.compile(filter).getConditions().get(0);
+            int expected = 0;
+            for (int row = 0; row < catalog.size(); row++) {
+                if (condition.test(catalog.game(row))) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, catalog.index().range(condition).size(), filter);
+        }
+    }
+
+    @Test
+    public void testIndexedFilterMatchesScan() {
+        for (String filter : List.of("rating > 9.5", "year < 1960, minPlayers <= 2", "rank > 990, name ~= 9",
+                "maxTime == 0, difficulty >= 4", "rating != 5")) {
+            List<Integer> expected = new ArrayList<>();
+            for (int row = 0; row < catalog.size(); row++) {
+                if (FilterCompiler.compile(filter).test(catalog.game(row))) {
+                    expected.add(row);
+                }
+            }
+            int[] rows = Filters.filterRows(filter, catalog);
+            assertEquals(expected.size(), rows.length, filter);
+            for (int i = 0; i < rows.length; i++) {
+                assertEquals(expected.get(i).intValue(), rows[i], filter);
+            }
+        }
+    }
+
+    @Test
+    public void testNotIndexed() {
+        assertNull(catalog.index().range(FilterCompiler.compile("rating != 7").getConditions().get(0)));
+        assertNull(catalog.index().range(FilterCompiler.compile("name == x").getConditions().get(0)));
+    }
+
+    @Test
+    public void testPermutationsMatchSortedRows() {
+        int[] all = RowBitmap.range(catalog.size()).toArray();
+        for (GameData col : GameData.values()) {
+            if (col == GameData.ID) {
+                continue;
+            }
+            for (boolean ascending : new boolean[] {true, false}) {
+                int[] expected = new RowOrder(catalog, col, ascending).first(all, all.length);
+                assertArrayEquals(expected, catalog.index().order(col, ascending));
+            }
+        }
+    }
+
+    @Test
+    public void testFirstInOrder() {
+        RowBitmap rows = catalog.bitmaps().evaluate(FilterCompiler.compile("minPlayers <= 2"));
+        int[] expected = new RowOrder(catalog, GameData.RATING, false).first(rows.toArray(), 10);
+        assertArrayEquals(expected, catalog.index().firstInOrder(rows, GameData.RATING, false, 10));
+    }
+}
@@ -138,4 +138,25 @@ class GameListTest {
         assertEquals(3, gameList.count());
         System.out.println(gameList.getGameNames());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests a list backed by a catalog, which looks names up in the catalog.
+     */
+    @Test
+    public void testCatalogList() {
+        List<BoardGame> ordered = List.copyOf(games);
+        IGameList catalogList = new GameList(GameCatalog.of(ordered));
+        catalogList.addToList("1-2", ordered.stream());
+        catalogList.addToList(ordered.get(2).getName().toLowerCase(), ordered.stream());
+        assertEquals(3, catalogList.count());
+        String first = ordered.get(0).getName();
+        catalogList.removeFromList(first.toUpperCase());
+        assertEquals(2, catalogList.count());
+        assertThrows(IllegalArgumentException.class,
+                () -> catalogList.addToList("Tucano", ordered.stream()));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalogList.addToList("4-5", ordered.stream()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> catalogList.removeFromList(first));
+    }
+}
@@ -0,0 +1,153 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GamesLoaderTest {
+    private static final String HEADER =
+            "objectname,objectid,average,avgweight,rank,minplayers,maxplayers,playingtime,"
+            + "maxplaytime,minplaytime,yearpublished,extra";
+
+    private static GameCatalog read(String csv) throws Exception {
+        return GamesLoader.readCatalog(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testLoadCollection() {
+        Set<BoardGame> games = GamesLoader.loadGamesFile("/collection.csv");
+        assertEquals(753, games.size());
+        GameCatalog sequential = GamesLoader.loadCatalog("/collection.csv");
+        GameCatalog parallel = GamesLoader.loadCatalog("/collection.csv", true);
+        assertEquals(753, sequential.size());
+        assertEquals(753, parallel.size());
+        assertEquals(sequential.game(752).toString(), parallel.game(752).toString());
+    }
+
+    @Test
+    public void testParsesRowsAndSkipsBadOnes() throws Exception {
+        GameCatalog catalog = read(HEADER + "\r\n"
+                + "Caf\u00e9 \u00dcnique,42,6.60806,1.8966,3365,2,6,30,45,30,2016,x\r\n"
+                + "Bad Number,43,abc,1.0,1,2,4,30,30,30,2000,x\n"
+                + "Too Short,44,7.0\n"
+                + "\n"
+                + "Last,45,-1.5e1,0,0,1,+4,10,20,10,-500");
+        assertEquals(2, catalog.size());
+        BoardGame first = catalog.game(0);
+        assertEquals("Caf\u00e9 \u00dcnique", first.getName());
+        assertEquals(42, first.getId());
+        assertEquals(Double.parseDouble("6.60806"), first.getRating());
+        assertEquals(Double.parseDouble("1.8966"), first.getDifficulty());
+        assertEquals(3365, first.getRank());
+        assertEquals(45, first.getMaxPlayTime());
+        assertEquals(30, first.getMinPlayTime());
+        BoardGame last = catalog.game(1);
+        assertEquals(-15.0, last.getRating());
+        assertEquals(4, last.getMaxPlayers());
+        assertEquals(-500, last.getYearPublished());
+    }
+
+    @Test
+    public void testDropsDuplicateGames() throws Exception {
+        GameCatalog catalog = read(HEADER + "\n"
+                + "Chess,1,7.5,3.5,100,2,2,20,20,10,2000,x\n"
+                + "Catan,2,8.2,2.3,50,3,4,60,120,60,2002,x\n"
+                + "Chess,1,6.0,3.0,200,2,2,20,20,10,1990,x\n"
+                + "Chess,3,7.0,3.5,100,2,2,20,20,10,2000,x\n"
+                + "Catan,2,8.2,2.3,50,3,4,60,120,60,2002,x\n");
+        assertEquals(3, catalog.size());
+        assertEquals(7.5, catalog.game(0).getRating());
+        assertEquals("Catan", catalog.game(1).getName());
+        assertEquals(3, catalog.game(2).getId());
+        assertEquals(2, catalog.rowOfId(3));
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        assertEquals(0, read("").size());
+        assertEquals(0, read(HEADER + "\n").size());
+    }
+
+    @Test
+    public void testMappedFileMatchesStream() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("Game ").append(i).append(',').append(i).append(',').append(i % 97 / 10.0)
+                    .append(",2.5,").append(i).append(",1,").append(2 + i % 5)
+                    .append(",60,90,30,").append(1990 + i % 30).append(",padding padding padding\n");
+        }
+        Path file = Files.createTempFile("collection", ".csv");
+        try {
+            Files.writeString(file, csv);
+            GameCatalog mapped = GamesLoader.loadCatalog(file);
+            GameCatalog parallel = GamesLoader.loadCatalog(file, true);
+            GameCatalog streamed = read(csv.toString());
+            assertEquals(20_000, mapped.size());
+            assertEquals(20_000, parallel.size());
+            for (int row = 0; row < mapped.size(); row++) {
+                assertEquals(streamed.game(row).toString(), mapped.game(row).toString());
+                assertEquals(streamed.game(row).toString(), parallel.game(row).toString());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMappedFileWithBadHeader() throws Exception {
+        Path file = Files.createTempFile("collection", ".csv");
+        try {
+            Files.writeString(file, "objectname,objectid\nChess,1\n");
+            assertThrows(IOException.class, () -> GamesLoader.loadCatalog(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws Exception {
+        String csv = HEADER + "\n"
+                + "Caf\u00e9,1,7.5,2.25,10,2,4,30,60,12,2001,x\n"
+                + "Chess,2,7.0,3.5,5,2,2,10,120,8,1500,x\n";
+        Path file = Files.createTempFile("collection", ".csv");
+        Path snapshot = GamesLoader.snapshotPath(file);
+        try {
+            Files.writeString(file, csv);
+            GameCatalog parsed = GamesLoader.loadCatalogWithSnapshot(file, false);
+            assertTrue(Files.isRegularFile(snapshot));
+            GameCatalog mapped = CatalogSnapshot.read(snapshot);
+            assertEquals(2, mapped.size());
+            for (int row = 0; row < parsed.size(); row++) {
+                assertEquals(parsed.game(row).toString(), mapped.game(row).toString());
+            }
+
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(snapshot, bytes);
+            assertThrows(IOException.class, () -> CatalogSnapshot.read(snapshot));
+            GameCatalog reparsed = GamesLoader.loadCatalogWithSnapshot(file, false);
+            assertEquals(parsed.game(0).toString(), reparsed.game(0).toString());
+            assertEquals(2, CatalogSnapshot.read(snapshot).size());
+            assertFalse(Files.exists(snapshot.resolveSibling(snapshot.getFileName() + ".tmp")));
+
+            // a csv edited without a newer modification time is still seen as changed
+            FileTime modified = Files.getLastModifiedTime(file);
+            Files.writeString(file, csv + "Go,3,6.0,1.0,20,2,6,15,15,15,1990,x\n");
+            Files.setLastModifiedTime(file, modified);
+            Files.setLastModifiedTime(snapshot, FileTime.fromMillis(modified.toMillis() + 60_000));
+            assertEquals(3, GamesLoader.loadCatalogWithSnapshot(file, false).size());
+            assertEquals(3, CatalogSnapshot.read(snapshot).size());
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(file);
+        }
+    }
+}
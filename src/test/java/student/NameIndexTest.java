@@ -0,0 +1,60 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Catan", 1, 3, 4, 60, 90, 2.3, 400, 7.1, 1995));
+        games.add(new BoardGame("Catan: Seafarers", 2, 3, 4, 60, 90, 2.4, 500, 7.2, 1997));
+        games.add(new BoardGame("Aaaaa", 3, 2, 2, 10, 10, 1.0, 0, 5.0, 2000));
+        games.add(new BoardGame("\u00dcber Caf\u00e9", 4, 2, 4, 30, 30, 1.5, 900, 6.0, 2010));
+        games.add(new BoardGame("Go", 5, 2, 2, 30, 30, 4.0, 100, 7.5, 2000));
+        catalog = GameCatalog.of(games);
+        catalog = new CollectionGenerator(catalog).generate(3000, 9);
+    }
+
+    private static int[] scan(GameCatalog catalog, String text) {
+        int[] rows = new int[catalog.size()];
+        int count = 0;
+        for (int row = 0; row < catalog.size(); row++) {
+            if (catalog.name(row).toLowerCase().contains(text)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    @Test
+    public void testMatchesScan() {
+        NameIndex index = catalog.nameIndex();
+        String[] texts = {"catan", "cat", "ca", "c", "", "aaa", "aaaa", "\u00fcber", "caf\u00e9",
+            "seafarers", "go", "an: s", "zzz", "catan: seafarers!"};
+        for (String text : texts) {
+            assertArrayEquals(scan(catalog, text), index.contains(text).toArray(), text);
+        }
+    }
+
+    @Test
+    public void testLowerNames() {
+        for (int row = 0; row < catalog.size(); row++) {
+            assertEquals(catalog.name(row).toLowerCase(), catalog.lowerName(row));
+        }
+    }
+
+    @Test
+    public void testFilterUsesIndex() {
+        int[] rows = Filters.filterRows("name ~= CAT", catalog);
+        assertArrayEquals(scan(catalog, "cat"), rows);
+    }
+}
@@ -0,0 +1,51 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameKeysTest {
+
+    @Test
+    public void testRanksFollowCaseInsensitiveOrder() {
+        String[] names = {"catan", "Azul", "CATAN", "Carcassonne", "7 Wonders", "azul",
+            "\u00c4sthetik"};
+        int[] ranks = NameKeys.ranks(names, names.length);
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j < names.length; j++) {
+                int expected = Integer.signum(
+                        String.CASE_INSENSITIVE_ORDER.compare(names[i], names[j]));
+                assertEquals(expected, Integer.signum(Integer.compare(ranks[i], ranks[j])),
+                        names[i] + " vs " + names[j]);
+            }
+        }
+        assertEquals(0, ranks[4]);
+    }
+
+    @Test
+    public void testOrderIsStableBothWays() {
+        int[] ranks = {1, 0, 1, 2, 0};
+        assertArrayEquals(new int[] {1, 4, 0, 2, 3}, NameKeys.order(ranks, true));
+        assertArrayEquals(new int[] {3, 0, 2, 1, 4}, NameKeys.order(ranks, false));
+    }
+
+    @Test
+    public void testSortByNameMatchesComparator() {
+        List<BoardGame> games = new ArrayList<>();
+        String[] names = {"b", "A", "a", "C", "B", "c"};
+        for (int i = 0; i < names.length; i++) {
+            games.add(new BoardGame(names[i], i, 1, 2, 3, 4, 1.0, i, 5.0, 2000));
+        }
+        for (boolean ascending : new boolean[] {true, false}) {
+            List<BoardGame> expected = new ArrayList<>(games);
+            expected.sort(ascending ? Sorts.createComparator(GameData.NAME)
+                    : Sorts.createComparator(GameData.NAME).reversed());
+            List<BoardGame> actual = new ArrayList<>(games);
+            Sorts.sortBy(actual, GameData.NAME, ascending);
+            assertEquals(expected, actual);
+        }
+    }
+}
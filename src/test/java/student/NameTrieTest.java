@@ -0,0 +1,85 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrieTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Go", 1, 2, 2, 30, 30, 4.0, 100, 7.5, 2000));
+        games.add(new BoardGame("GO", 2, 2, 2, 30, 30, 4.0, 0, 6.5, 2000));
+        games.add(new BoardGame("Go Fish", 3, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("golang", 4, 2, 7, 50, 55, 7.0, 400, 9.5, 2003));
+        games.add(new BoardGame("GoRami", 5, 6, 6, 40, 42, 5.0, 300, 8.5, 2002));
+        games.add(new BoardGame("Chess", 6, 2, 2, 10, 20, 10.0, 0, 10.0, 2006));
+        GameCatalog generated = new CollectionGenerator(GamesLoader.loadCatalog("/collection.csv"))
+                .generate(4000, 21);
+        List<BoardGame> all = new ArrayList<>(games);
+        IntStream.range(0, generated.size()).mapToObj(generated::game).forEach(all::add);
+        catalog = GameCatalog.of(all);
+    }
+
+    private int[] scanExact(String text) {
+        return IntStream.range(0, catalog.size())
+                .filter(row -> catalog.name(row).equalsIgnoreCase(text)).toArray();
+    }
+
+    private int[] scanComplete(String prefix, GameData rankBy, int limit) {
+        Comparator<Integer> order = rankBy == GameData.RATING
+                ? Comparator.comparingDouble((Integer row) -> -catalog.game(row).getRating())
+                : Comparator.comparingInt((Integer row) -> {
+                    int rank = catalog.game(row).getRank();
+                    return rank == 0 ? Integer.MAX_VALUE : rank;
+                });
+        return IntStream.range(0, catalog.size()).boxed()
+                .filter(row -> catalog.name(row).regionMatches(true, 0, prefix, 0,
+                        prefix.length()))
+                .sorted(order.thenComparing(Comparator.naturalOrder()))
+                .limit(limit).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testExact() {
+        NameTrie trie = catalog.nameTrie();
+        for (String text : new String[] {"go", "GO", "go fish", "gorami", "g", "", "chess",
+            "chesss", "Golan", catalog.name(100), catalog.name(3000).toUpperCase()}) {
+            assertArrayEquals(scanExact(text), trie.exact(text), text);
+        }
+    }
+
+    @Test
+    public void testComplete() {
+        NameTrie trie = catalog.nameTrie();
+        for (String prefix : new String[] {"", "g", "go", "GO ", "gor", "c", "s", "x", "zzz",
+            catalog.name(7).substring(0, 3)}) {
+            for (GameData rankBy : new GameData[] {GameData.RATING, GameData.RANK}) {
+                for (int limit : new int[] {1, 5, 16, 40}) {
+                    assertArrayEquals(scanComplete(prefix, rankBy, limit),
+                            trie.complete(prefix, rankBy, limit), prefix + " " + rankBy);
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> trie.complete("g", GameData.YEAR, 3));
+    }
+
+    @Test
+    public void testNameEqualsFilter() {
+        int[] go = scanExact("go");
+        assertArrayEquals(go, Filters.filterRows("name == go", catalog));
+        int[] notGo = Filters.filterRows("name != go", catalog);
+        assertEquals(catalog.size() - go.length, notGo.length);
+        assertTrue(Arrays.stream(notGo).noneMatch(row -> row == 0 || row == 1));
+    }
+}
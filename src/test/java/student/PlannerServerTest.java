@@ -0,0 +1,161 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlannerServerTest {
+    private PlannerServer server;
+    private HttpClient client;
+
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        catalog = GameCatalog.of(List.of(
+                new BoardGame("Chess", 1, 2, 2, 10, 20, 3.0, 700, 8.0, 1500),
+                new BoardGame("Go", 2, 2, 2, 30, 30, 4.0, 100, 7.5, 2000),
+                new BoardGame("Tucano \"Deluxe\"", 3, 3, 5, 60, 90, 2.0, 500, 6.0, 2004)));
+        server = new PlannerServer(catalog, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery) throws Exception {
+        return send(server, method, pathAndQuery);
+    }
+
+    private HttpResponse<String> send(PlannerServer to, String method, String pathAndQuery)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + to.port() + pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFilterSortAndLimit() throws Exception {
+        HttpResponse<String> response = send("GET", "/games?session=a&filter="
+                + encode("minplayers >= 2") + "&sort=rating&order=desc&limit=2");
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        assertTrue(body.startsWith("[{\"name\":\"Chess\""));
+        assertTrue(body.contains("{\"name\":\"Go\""));
+        assertFalse(body.contains("Tucano"));
+    }
+
+    @Test
+    public void testSessionsAreProgressiveAndSeparate() throws Exception {
+        send("GET", "/games?session=a&filter=" + encode("minplayers<3"));
+        String narrowed = send("GET", "/games?session=a&filter=" + encode("rating<8")).body();
+        assertTrue(narrowed.contains("\"Go\"") && !narrowed.contains("Chess"));
+        String other = send("GET", "/games?session=b").body();
+        assertTrue(other.contains("Tucano \\\"Deluxe\\\""));
+        send("POST", "/reset?session=a");
+        assertTrue(send("GET", "/games?session=a").body().contains("Chess"));
+    }
+
+    @Test
+    public void testGameList() throws Exception {
+        send("GET", "/games?session=c&filter=" + encode("minplayers==2"));
+        assertEquals("[\"Chess\",\"Go\"]", send("POST", "/list/add?session=c&games=all").body());
+        assertEquals("[\"Go\"]", send("POST", "/list/remove?session=c&games=chess").body());
+        assertEquals("[\"Go\"]", send("GET", "/list?session=c").body());
+        assertEquals(400, send("POST", "/list/add?session=c&games=9").statusCode());
+        assertEquals("[]", send("POST", "/list/clear?session=c").body());
+    }
+
+    @Test
+    public void testPages() throws Exception {
+        String first = send("GET", "/page?session=p&sort=name&size=2").body();
+        assertTrue(first.startsWith("{\"games\":[{\"name\":\"Chess\""));
+        String cursor = first.substring(first.indexOf("\"next\":\"") + 8, first.length() - 2);
+        String second = send("GET", "/page?session=p&sort=name&size=2&cursor=" + cursor).body();
+        assertTrue(second.contains("Tucano") && second.endsWith("\"next\":null}"));
+        assertEquals(400, send("GET", "/page?session=p&sort=rating&cursor=" + cursor)
+                .statusCode());
+    }
+
+    @Test
+    public void testBadRequests() throws Exception {
+        assertEquals(400, send("GET", "/games?sort=nosuchcolumn").statusCode());
+        assertEquals(400, send("GET", "/games?sort=rating&limit=x").statusCode());
+        assertEquals(405, send("POST", "/games").statusCode());
+        assertEquals(404, send("POST", "/list/nothing").statusCode());
+    }
+
+    @Test
+    public void testSessionLimit() throws Exception {
+        PlannerServer limited = new PlannerServer(catalog, null, 0, 2, 60_000);
+        limited.start();
+        try {
+            assertEquals(200, send(limited, "GET", "/games?session=a").statusCode());
+            assertEquals(200, send(limited, "GET", "/games?session=b").statusCode());
+            assertEquals(503, send(limited, "GET", "/games?session=c").statusCode());
+            assertEquals(200, send(limited, "GET", "/games?session=a").statusCode());
+            send(limited, "DELETE", "/session?session=a");
+            assertEquals(200, send(limited, "GET", "/games?session=c").statusCode());
+        } finally {
+            limited.stop();
+        }
+    }
+
+    @Test
+    public void testIdleSessionsExpire() throws Exception {
+        PlannerServer limited = new PlannerServer(catalog, null, 0, 1, 1);
+        limited.start();
+        try {
+            send(limited, "GET", "/games?session=a&filter=" + encode("minplayers>=3"));
+            Thread.sleep(10);
+            assertEquals(200, send(limited, "GET", "/games?session=b").statusCode());
+            // a was dropped, so it comes back without its filter
+            Thread.sleep(10);
+            assertTrue(send(limited, "GET", "/games?session=a").body().contains("Chess"));
+        } finally {
+            limited.stop();
+        }
+    }
+
+    @Test
+    public void testReloadEndsSessions() throws Exception {
+        send("POST", "/list/add?session=r&games=all");
+        server.reload(GameCatalog.of(List.of(
+                new BoardGame("Azul", 4, 2, 4, 30, 45, 1.8, 60, 7.8, 2017))));
+        assertEquals("[]", send("GET", "/list?session=r").body());
+        assertTrue(send("GET", "/games?session=r").body().startsWith("[{\"name\":\"Azul\""));
+        assertEquals("[\"Azul\"]", send("POST", "/list/add?session=r&games=azul").body());
+    }
+
+    @Test
+    public void testUnratedGamesAreValidJson() throws Exception {
+        PlannerServer unrated = new PlannerServer(GameCatalog.of(List.of(
+                new BoardGame("Unrated", 4, 2, 4, 30, 60, Double.NaN, 0,
+                        Double.POSITIVE_INFINITY, 2020))), 0);
+        unrated.start();
+        try {
+            String body = send(unrated, "GET", "/games").body();
+            assertTrue(body.contains("\"difficulty\":null,") && body.contains("\"rating\":null,"));
+        } finally {
+            unrated.stop();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryExecutorTest {
+    /**
+     * Number of games, enough for several 64 row ranges and a partial last one.
+     */
+    private static final int SIZE = 200;
+
+    private GameCatalog catalog;
+    private QueryExecutor parallel;
+
+    @BeforeEach
+    public void setup() {
+        List<BoardGame> games = new ArrayList<>();
+        for (int row = 0; row < SIZE; row++) {
+            // ratings and years are distinct and shuffled across the ranges, max players 2 on
+            // every third row
+            games.add(new BoardGame("Game " + row, row + 1, 2, 2 + row % 3, 30, 60, 2.0, row + 1,
+                    rating(row), year(row)));
+        }
+        catalog = GameCatalog.of(games);
+        // split every loop, even small ones
+        parallel = new QueryExecutor(4, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        parallel.shutdown();
+    }
+
+    private static double rating(int row) {
+        return row * 37 % SIZE / 20.0;
+    }
+
+    private static int year(int row) {
+        return 1800 + row * 77 % SIZE;
+    }
+
+    private static int[] rows(IntPredicate matches) {
+        return IntStream.range(0, SIZE).filter(matches).toArray();
+    }
+
+    private static int[] descending(int[] rows, IntToDoubleFunction key) {
+        return IntStream.of(rows).boxed()
+                .sorted(Comparator.comparingDouble((Integer row) -> key.applyAsDouble(row))
+                        .reversed())
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<String> names(int[] rows) {
+        return IntStream.of(rows).mapToObj(row -> "Game " + row).collect(Collectors.toList());
+    }
+
+    private static List<String> names(Stream<BoardGame> games) {
+        return games.map(BoardGame::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryExecutor(0, 1));
+        assertFalse(new QueryExecutor(1, 1).isParallel(1_000_000));
+        assertTrue(parallel.isParallel(1));
+    }
+
+    @Test
+    public void testConfiguredParallelism() {
+        assertEquals(8, QueryExecutor.parallelism(null, 8));
+        assertEquals(3, QueryExecutor.parallelism(" 3", 8));
+        assertEquals(8, QueryExecutor.parallelism("0", 8));
+        assertEquals(8, QueryExecutor.parallelism("-2", 8));
+        assertEquals(8, QueryExecutor.parallelism("many", 8));
+    }
+
+    @Test
+    public void testRangesCoverEveryRow() {
+        int[] seen = new int[201];
+        parallel.forEachRange(seen.length, (from, to) -> {
+            assertEquals(0, from % 64);
+            for (int row = from; row < to; row++) {
+                seen[row]++;
+            }
+        });
+        for (int count : seen) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    public void testFilterAndFirst() {
+        int[] rows = rows(row -> true);
+        FilterCondition condition = FilterCompiler.compile("rating>=7").getConditions().get(0);
+        int[] rated = rows(row -> rating(row) >= 7);
+        assertArrayEquals(rated, parallel.filter(rows.clone(), condition.bind(catalog)));
+        assertArrayEquals(rated,
+                new QueryExecutor(1, 1).filter(rows.clone(), condition.bind(catalog)));
+
+        RowOrder order = new RowOrder(catalog, GameData.YEAR, false);
+        int[] byYear = descending(rows, QueryExecutorTest::year);
+        for (int k : new int[] {1, 3, 64, 65, SIZE, SIZE + 20}) {
+            assertArrayEquals(Arrays.copyOf(byYear, Math.min(k, SIZE)),
+                    parallel.first(order, rows, k), "k=" + k);
+        }
+        assertArrayEquals(Arrays.copyOf(descending(rated, QueryExecutorTest::year), 2),
+                parallel.first(order, rated, 2));
+    }
+
+    @Test
+    public void testParallelPlanner() {
+        Planner split = new Planner(catalog, parallel);
+        assertEquals(names(descending(rows(row -> rating(row) >= 7), QueryExecutorTest::rating)),
+                names(split.filter("rating>=7", GameData.RATING, false)));
+        // narrows the rated games
+        assertEquals(names(rows(row -> rating(row) >= 7 && row % 3 == 0)),
+                names(split.filter("maxplayers==2")));
+    }
+
+    @Test
+    public void testParallelPlannerMatchesSequentialAtScale() {
+        GameCatalog generated = CollectionGenerator.fromDefaultCollection().generate(3_001, 17);
+        Planner sequential = new Planner(generated, new QueryExecutor(1, 1));
+        Planner split = new Planner(generated, parallel);
+        for (String filter : new String[] {"minplayers<=3", "rating>6", "avgweight<3"}) {
+            assertEquals(names(sequential.filter(filter, GameData.RATING, false).limit(50)),
+                    names(split.filter(filter, GameData.RATING, false).limit(50)), filter);
+        }
+    }
+}
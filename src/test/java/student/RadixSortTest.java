@@ -0,0 +1,87 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixSortTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setup() {
+        // every column ties, so each sort key is broken by the next, and names come in pairs that
+        // differ only in case
+        catalog = GameCatalog.of(List.of(
+                new BoardGame("Ark", 1, 2, 4, 30, 60, 2.0, 10, 7.0, 2001),
+                new BoardGame("bee", 2, 1, 4, 30, 60, 2.0, 20, 8.0, 2000),
+                new BoardGame("Cog", 3, 2, 2, 30, 60, 2.0, 30, 7.0, 2000),
+                new BoardGame("ark", 4, 1, 6, 30, 60, 2.0, 40, 8.0, 2001),
+                new BoardGame("Dew", 5, 2, 4, 30, 60, 2.0, 50, 6.0, 2001),
+                new BoardGame("cog", 6, 1, 4, 30, 60, 2.0, 60, 7.0, 2000),
+                new BoardGame("Bee", 7, 2, 6, 30, 60, 2.0, 70, 8.0, 2000),
+                new BoardGame("dew", 8, 1, 2, 30, 60, 2.0, 80, 6.0, 2001)));
+    }
+
+    private static List<String> sorted(GameCatalog catalog, int[] rows, String spec) {
+        return IntStream.of(RadixSort.sort(catalog, rows, SortKey.parse(spec)))
+                .mapToObj(catalog::name).collect(Collectors.toList());
+    }
+
+    private List<String> sorted(String spec) {
+        return sorted(catalog, IntStream.range(0, catalog.size()).toArray(), spec);
+    }
+
+    @Test
+    public void testSortsOnSeveralKeys() {
+        assertEquals(List.of("Dew", "dew", "Ark", "ark", "Cog", "cog", "bee", "Bee"),
+                sorted("year desc, rating"));
+        assertEquals(List.of("ark", "bee", "cog", "dew", "Bee", "Ark", "Dew", "Cog"),
+                sorted("minplayers, maxplayers desc, name"));
+        assertEquals(List.of("dew", "Dew", "cog", "Cog", "Bee", "bee", "ark", "Ark"),
+                sorted("name desc, rank desc"));
+        assertEquals(List.of("bee", "ark", "Bee", "Ark", "Cog", "cog", "Dew", "dew"),
+                sorted("rating desc, rank"));
+    }
+
+    @Test
+    public void testTiesKeepInputOrder() {
+        assertEquals(List.of("ark", "Ark", "Bee"), sorted(catalog, new int[] {3, 6, 0}, "name"));
+    }
+
+    @Test
+    public void testPlannerFilter() {
+        Planner planner = new Planner(catalog);
+        assertEquals(List.of("Ark", "Dew", "Bee", "Cog"),
+                planner.filter("minPlayers>=2", SortKey.parse("year desc, name"))
+                        .map(BoardGame::getName).collect(Collectors.toList()));
+        assertThrows(IllegalArgumentException.class, () -> planner.filter("", List.of()));
+    }
+
+    @Test
+    public void testMatchesComparatorAtScale() {
+        GameCatalog generated = CollectionGenerator.fromDefaultCollection().generate(5_000, 23);
+        int[] rows = IntStream.range(0, generated.size()).toArray();
+        // the last spec needs more key bits than fit in one long, so it is packed into several
+        for (String spec : new String[] {"year desc, rating", "minplayers, maxplayers desc, name",
+                "name desc, year", "difficulty, rank desc", "maxplaytime desc",
+                "rating desc, difficulty, rank desc, year, minplaytime, maxplaytime desc, name"}) {
+            List<SortKey> keys = SortKey.parse(spec);
+            List<BoardGame> games = new ArrayList<>();
+            for (int row : rows) {
+                games.add(generated.game(row));
+            }
+            games.sort(SortKey.comparator(keys));
+            List<Integer> expected = games.stream().map(BoardGame::getId)
+                    .collect(Collectors.toList());
+            List<Integer> actual = IntStream.of(RadixSort.sort(generated, rows, keys))
+                    .map(generated::id).boxed().collect(Collectors.toList());
+            assertEquals(expected, actual, spec);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    public void setup() {
+        // Beta needs five players and Delta is the one hard game; ratings and years are distinct
+        catalog = GameCatalog.of(List.of(
+                new BoardGame("Alpha", 1, 2, 4, 30, 60, 1.5, 10, 7.0, 2010),
+                new BoardGame("Beta", 2, 5, 8, 30, 60, 1.0, 20, 9.0, 2015),
+                new BoardGame("Gamma", 3, 1, 2, 30, 60, 1.8, 30, 8.0, 1990),
+                new BoardGame("Delta", 4, 2, 6, 30, 60, 3.0, 40, 6.0, 2005),
+                new BoardGame("Omega", 5, 3, 4, 30, 60, 1.2, 50, 7.5, 2020)));
+    }
+
+    private static List<String> names(Stream<BoardGame> games) {
+        return games.map(BoardGame::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCanonicalKey() {
+        String key = ResultCache.key(FilterCompiler.compile("minplayers<=4, difficulty<2"),
+                "average desc");
+        assertEquals(key, ResultCache.key(FilterCompiler.compile("difficulty < 2,minPlayers<=4"),
+                "average desc"));
+        assertNotEquals(key, ResultCache.key(FilterCompiler.compile("difficulty<2"),
+                "average desc"));
+        assertNotEquals(key, ResultCache.key(FilterCompiler.compile("minplayers<=4, difficulty<2"),
+                "average asc"));
+    }
+
+    @Test
+    public void testSessionsShareResults() {
+        Planner planner = new Planner(catalog);
+        List<String> first = List.of("Gamma", "Omega", "Alpha");
+        assertEquals(first, names(planner.filter("minplayers<=4, difficulty<2", GameData.RATING,
+                false)));
+        assertEquals(0, planner.cacheHits());
+        assertEquals(1, planner.cacheMisses());
+
+        // same conditions in another order, reached progressively in another session
+        Planner other = planner.newSession();
+        other.filter("difficulty<2");
+        assertEquals(first, names(other.filter("minPlayers <= 4", GameData.RATING, false)));
+        assertEquals(1, planner.cacheHits());
+
+        // the hit still narrows the session for its next filter
+        assertEquals(List.of("Alpha", "Omega"), names(other.filter("year>=2000")));
+        assertEquals(first, names(planner.filter("", GameData.RATING, false)));
+    }
+
+    @Test
+    public void testReloadInvalidates() {
+        Planner planner = new Planner(catalog);
+        Planner other = planner.newSession();
+        assertEquals(List.of("Delta", "Alpha", "Beta", "Omega"),
+                names(planner.filter("minplayers>=2", GameData.YEAR, true)));
+        other.filter("maxplayers<=4");
+
+        planner.reload(GameCatalog.of(List.of(
+                new BoardGame("Kappa", 6, 2, 4, 30, 60, 2.0, 10, 7.0, 2001),
+                new BoardGame("Lambda", 7, 2, 4, 30, 60, 2.0, 20, 7.0, 2016),
+                new BoardGame("Mu", 8, 2, 4, 30, 60, 2.0, 30, 7.0, 2009),
+                new BoardGame("Nu", 9, 1, 4, 30, 60, 2.0, 40, 7.0, 1995))));
+        assertEquals(0, planner.cacheHits() + planner.cacheMisses());
+        List<String> expected = List.of("Kappa", "Mu", "Lambda");
+        assertEquals(expected, names(planner.filter("minplayers>=2", GameData.YEAR, true)));
+        assertEquals(0, planner.cacheHits());
+        // the other session moved to the new catalog and dropped its filter
+        assertEquals(expected, names(other.filter("minplayers>=2", GameData.YEAR, true)));
+        assertEquals(1, other.cacheHits());
+    }
+
+    @Test
+    public void testPageAfterReload() {
+        Planner planner = new Planner(catalog);
+        Planner other = planner.newSession();
+        List<BoardGame> more = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            more.add(new BoardGame("Game " + i, 100 + i, 2, 4, 30, 60, 2.0, i + 1, i / 5.0,
+                    2000));
+        }
+        planner.reload(GameCatalog.of(more));
+        // rows 46 to 49 are rated above 9, past the end of the old catalog's columns
+        Page first = other.page("rating>9", GameData.RATING, false, 2, null);
+        assertEquals(List.of("Game 49", "Game 48"), names(first.getGames().stream()));
+        Page second = other.page("", GameData.RATING, false, 2, first.getNextCursor());
+        assertEquals(List.of("Game 47", "Game 46"), names(second.getGames().stream()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testCapacity() {
+        ResultCache cache = new ResultCache(catalog, 1024);
+        RowBitmap few = RowBitmap.of(new int[] {1, 2, 3}, 3);
+        // 1,200 bytes of sorted rows alone are more than the whole cache
+        cache.put(catalog, "a", new ResultCache.Result(few, new int[300]));
+        assertEquals(0, cache.size());
+        ResultCache.Result small = new ResultCache.Result(few, new int[] {3, 2, 1});
+        int fits = (int) (1024 / small.sizeInBytes());
+        for (int i = 0; i < 10; i++) {
+            cache.put(catalog, "k" + i, small);
+        }
+        assertEquals(fits, cache.size());
+        assertTrue(cache.sizeInBytes() <= 1024);
+        // with at most 16 other entries every one is compared, so the least recently used go
+        assertNotNull(cache.get(catalog, "k9"));
+        assertNotNull(cache.get(catalog, "k" + (10 - fits)));
+        assertNull(cache.get(catalog, "k" + (9 - fits)));
+        assertNull(cache.get(GameCatalog.of(List.of()), "k9"));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(catalog, -1));
+    }
+}
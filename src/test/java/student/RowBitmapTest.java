@@ -0,0 +1,68 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowBitmapTest {
+    private static final int SIZE = 200_000;
+
+    private static BitSet randomSet(Random rnd, double density) {
+        BitSet set = new BitSet(SIZE);
+        for (int row = 0; row < SIZE; row++) {
+            if (rnd.nextDouble() < density) {
+                set.set(row);
+            }
+        }
+        return set;
+    }
+
+    private static RowBitmap toBitmap(BitSet set) {
+        int[] rows = set.stream().toArray();
+        return RowBitmap.of(rows, rows.length);
+    }
+
+    @Test
+    public void testOfAndFromWordsAgree() {
+        Random rnd = new Random(7);
+        for (double density : new double[] {0.001, 0.05, 0.5}) {
+            BitSet set = randomSet(rnd, density);
+            RowBitmap a = toBitmap(set);
+            RowBitmap b = RowBitmap.fromWords(set.toLongArray());
+            assertEquals(set.cardinality(), a.cardinality());
+            assertArrayEquals(set.stream().toArray(), a.toArray());
+            assertArrayEquals(a.toArray(), b.toArray());
+            assertTrue(set.isEmpty() || a.contains(set.nextSetBit(0)));
+            assertFalse(a.contains(set.nextClearBit(0)));
+        }
+    }
+
+    @Test
+    public void testAndAndNot() {
+        Random rnd = new Random(11);
+        double[] densities = {0.001, 0.03, 0.4};
+        for (double da : densities) {
+            for (double db : densities) {
+                BitSet x = randomSet(rnd, da);
+                BitSet y = randomSet(rnd, db);
+                BitSet and = (BitSet) x.clone();
+                and.and(y);
+                BitSet andNot = (BitSet) x.clone();
+                andNot.andNot(y);
+                assertArrayEquals(and.stream().toArray(), toBitmap(x).and(toBitmap(y)).toArray());
+                assertArrayEquals(andNot.stream().toArray(), toBitmap(x).andNot(toBitmap(y)).toArray());
+                assertEquals(andNot.cardinality(), toBitmap(x).andNot(toBitmap(y)).cardinality());
+            }
+        }
+    }
+
+    @Test
+    public void testRange() {
+        assertEquals(0, RowBitmap.range(0).cardinality());
+        assertEquals(70_000, RowBitmap.range(70_000).cardinality());
+        assertArrayEquals(new int[] {0, 1, 2}, RowBitmap.range(3).toArray());
+    }
+}
@@ -0,0 +1,126 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledCacheTest {
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        SampledCache<String, Integer> cache = new SampledCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        cache.put("c", 3);
+        assertEquals(2, cache.size());
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void testPutKeepsFirstValue() {
+        SampledCache<String, Integer> cache = new SampledCache<>(4);
+        assertEquals(Integer.valueOf(1), cache.put("a", 1));
+        assertEquals(Integer.valueOf(1), cache.put("a", 2));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+    }
+
+    @Test
+    public void testEvictsByWeight() {
+        SampledCache<String, int[]> cache = new SampledCache<>(10L, value -> value.length);
+        cache.put("a", new int[4]);
+        cache.put("b", new int[4]);
+        assertNotNull(cache.get("a"));
+        cache.put("c", new int[4]);
+        assertEquals(8, cache.weight());
+        assertNull(cache.get("b"));
+        // heavier than the whole cache, returned but not cached
+        assertEquals(11, cache.put("d", new int[11]).length);
+        assertNull(cache.get("d"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLargeCacheEvictsMostlyUnusedEntries() {
+        SampledCache<Integer, Integer> cache = new SampledCache<>(1_000);
+        for (int key = 0; key < 1_000; key++) {
+            cache.put(key, key);
+        }
+        for (int key = 500; key < 1_000; key++) {
+            cache.get(key);
+        }
+        for (int key = 1_000; key < 1_500; key++) {
+            cache.put(key, key);
+        }
+        assertEquals(1_000, cache.size());
+        int unused = 0;
+        int used = 0;
+        for (int key = 0; key < 500; key++) {
+            unused += cache.get(key) != null ? 1 : 0;
+            used += cache.get(key + 500) != null ? 1 : 0;
+        }
+        assertTrue(used > 400 && unused < 100, unused + " unused, " + used + " used");
+    }
+
+    @Test
+    public void testLargeCacheKeepsBoundAndNewValue() {
+        SampledCache<Integer, int[]> cache = new SampledCache<>(100L, value -> value.length);
+        for (int key = 0; key < 5_000; key++) {
+            // mostly light values, with a heavy one now and then that evicts several entries
+            int[] value = new int[key % 50 == 0 ? 60 : 1 + key % 3];
+            assertSame(value, cache.put(key, value));
+            assertSame(value, cache.get(key));
+            assertTrue(cache.weight() <= 100, "weight " + cache.weight());
+            if (key % 7 == 0) {
+                cache.get(key / 2);
+            }
+        }
+        assertTrue(cache.size() > 16);
+        long total = 0;
+        int kept = 0;
+        for (int key = 0; key < 5_000; key++) {
+            int[] value = cache.get(key);
+            if (value != null) {
+                total += value.length;
+                kept++;
+            }
+        }
+        assertEquals(cache.weight(), total);
+        assertEquals(cache.size(), kept);
+    }
+
+    @Test
+    public void testConcurrentUseStaysBounded() throws Exception {
+        SampledCache<Integer, Integer> cache = new SampledCache<>(16);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int key = (i * 31 + seed) % 64;
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            value = cache.put(key, key * 2);
+                        }
+                        assertEquals(key * 2, value.intValue());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(cache.size() <= 16);
+    }
+}
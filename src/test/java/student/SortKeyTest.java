@@ -0,0 +1,41 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortKeyTest {
+
+    @Test
+    public void testParse() {
+        List<SortKey> expected = List.of(new SortKey(GameData.RATING, false),
+                new SortKey(GameData.YEAR, true), new SortKey(GameData.NAME, true));
+        assertEquals(expected, SortKey.parse("rating desc, year asc, name"));
+        assertEquals(expected, SortKey.parse("ratingdesc,yearasc,name"));
+        assertEquals(expected, SortKey.parse(" RATING DESC ,year,name "));
+        assertEquals("average desc", SortKey.parse("rating desc").get(0).toString());
+    }
+
+    @Test
+    public void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> SortKey.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.parse(" , "));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.parse("rating, colour"));
+        assertThrows(IllegalArgumentException.class, () -> SortKey.parse("id desc"));
+    }
+
+    @Test
+    public void testComparator() {
+        BoardGame a = new BoardGame("Chess", 1, 2, 2, 10, 20, 3.5, 100, 7.5, 2000);
+        BoardGame b = new BoardGame("Catan", 2, 3, 4, 60, 120, 4.0, 50, 7.5, 1995);
+        BoardGame c = new BoardGame("Azul", 3, 2, 4, 30, 45, 2.0, 80, 8.0, 2017);
+        List<BoardGame> games = new ArrayList<>(List.of(a, b, c));
+        games.sort(SortKey.comparator(SortKey.parse("rating desc, year")));
+        assertEquals(List.of(c, b, a), games);
+        games.sort(SortKey.comparator(SortKey.parse("rating desc, name desc")));
+        assertEquals(List.of(c, a, b), games);
+    }
+}
@@ -0,0 +1,164 @@
+package student;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel for {@link ColumnScan}: compares a numeric column with a constant a whole vector of
+ * rows at a time, with the platform's preferred vector width.
+ * <p>
+ * Every vector is compared twice, with the constant comparisons &gt;= and &lt;= the key, and each
+ * operator is derived from the two results: the JIT only emits a vector compare for a constant
+ * comparison, and one loop per operator would be six copies of the same code. A compare gives a
+ * lane mask, whose {@link jdk.incubator.vector.VectorMask#toLong} holds the bit of lane n at bit
+ * n, however many lanes there are. A species has a power of two lanes of at most 64, so the bits
+ * of a vector starting at row i go straight into word i / 64 at bit i % 64, without a branch per
+ * row. Rows past the last full vector are checked one at a time.
+ * <p>
+ * Only {@link ColumnScan} may load this class, through {@link #KERNEL}, after checking that the
+ * vector module is present. The class is compiled in its own source set, the only one built with
+ * the incubating module, so that compiling and running the rest of the planner does not warn
+ * about it.
+ */
+final class VectorScan {
+    /**
+     * The kernel, as loaded by {@link ColumnScan#vectorKernel}.
+     */
+    static final ColumnScan.Kernel KERNEL = VectorScan::matches;
+    /**
+     * Vector shape for int columns.
+     */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    /**
+     * Vector shape for double columns.
+     */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private VectorScan() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated.");
+    }
+
+    /**
+     * Finds the rows whose numeric column value matches a condition.
+     *
+     * @param catalog   the catalog
+     * @param condition a condition on a numeric column
+     * @return the match words
+     * @throws IllegalArgumentException if the condition is on the name
+     */
+    static long[] matches(GameCatalog catalog, FilterCondition condition) {
+        long[] words = new long[(catalog.size() + 63) / 64];
+        matches(catalog, condition, 0, catalog.size(), words);
+        return words;
+    }
+
+    /**
+     * Sets the bits of the rows in a range whose numeric column value matches a condition.
+     *
+     * @param catalog   the catalog
+     * @param condition a condition on a numeric column
+     * @param from      first row, a multiple of 64
+     * @param to        end row, exclusive
+     * @param words     the match words to set bits in
+     * @throws IllegalArgumentException if the condition is on the name
+     */
+    static void matches(GameCatalog catalog, FilterCondition condition, int from, int to,
+                        long[] words) {
+        if (condition.getColumn() == GameData.NAME) {
+            throw new IllegalArgumentException("Names cannot be scanned as vectors.");
+        }
+        Operations op = condition.getOperator();
+        int row;
+        if (GameCatalog.isDoubleColumn(condition.getColumn())) {
+            row = scan(catalog.doubleColumn(condition.getColumn()), from, to, op,
+                    condition.getNumber(), words);
+        } else {
+            row = scan(catalog.intColumn(condition.getColumn()), from, to, op,
+                    (int) condition.getNumber(), words);
+        }
+        ColumnScan.scalarMatches(condition.bind(catalog), row, to, words);
+    }
+
+    /**
+     * Compares the full vectors of an int column with a key.
+     *
+     * @param values the column
+     * @param from   first row, a multiple of 64
+     * @param to     end row, exclusive
+     * @param op     the operator
+     * @param key    the key
+     * @param words  the match words to set bits in
+     * @return the first row left for the scalar tail
+     */
+    private static int scan(int[] values, int from, int to, Operations op, int key,
+                            long[] words) {
+        int lanes = INTS.length();
+        long laneMask = lanes == 64 ? -1L : (1L << lanes) - 1;
+        int bound = from + INTS.loopBound(to - from);
+        for (int row = from; row < bound; row += lanes) {
+            IntVector vector = IntVector.fromArray(INTS, values, row);
+            long atLeast = vector.compare(VectorOperators.GE, key).toLong();
+            long atMost = vector.compare(VectorOperators.LE, key).toLong();
+            words[row >>> 6] |= (combine(op, atLeast, atMost) & laneMask) << row;
+        }
+        return bound;
+    }
+
+    /**
+     * Compares the full vectors of a double column with a key.
+     *
+     * @param values the column
+     * @param from   first row, a multiple of 64
+     * @param to     end row, exclusive
+     * @param op     the operator
+     * @param key    the key
+     * @param words  the match words to set bits in
+     * @return the first row left for the scalar tail
+     */
+    private static int scan(double[] values, int from, int to, Operations op, double key,
+                            long[] words) {
+        int lanes = DOUBLES.length();
+        long laneMask = lanes == 64 ? -1L : (1L << lanes) - 1;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (int row = from; row < bound; row += lanes) {
+            DoubleVector vector = DoubleVector.fromArray(DOUBLES, values, row);
+            long atLeast = vector.compare(VectorOperators.GE, key).toLong();
+            long atMost = vector.compare(VectorOperators.LE, key).toLong();
+            words[row >>> 6] |= (combine(op, atLeast, atMost) & laneMask) << row;
+        }
+        return bound;
+    }
+
+    /**
+     * Derives the lane bits of an operator from the lanes that are at least and at most the key.
+     * A NaN lane is in neither, so it only matches !=, as with scalar comparisons.
+     *
+     * @param op      the operator
+     * @param atLeast bits of the lanes that are &gt;= the key
+     * @param atMost  bits of the lanes that are &lt;= the key
+     * @return the bits of the matching lanes, and possibly bits above the last lane
+     */
+    private static long combine(Operations op, long atLeast, long atMost) {
+        switch (op) {
+            case EQUALS:
+                return atLeast & atMost;
+            case NOT_EQUALS:
+                return ~(atLeast & atMost);
+            case GREATER_THAN:
+                return atLeast & ~atMost;
+            case LESS_THAN:
+                return atMost & ~atLeast;
+            case GREATER_THAN_EQUALS:
+                return atLeast;
+            case LESS_THAN_EQUALS:
+                return atMost;
+            default:
+                throw new IllegalArgumentException("Not a numeric comparison: " + op);
+        }
+    }
+}